@@ -0,0 +1,37 @@
+package app.Config;
+
+import app.Service.MembershipRoleCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link MembershipRoleCache} scope for the lifetime of each HTTP request.
+ */
+@Component
+public class MembershipRoleCacheFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MembershipRoleCache membershipRoleCache;
+
+    @Override
+    protected void doFilterInternal(
+            @NotNull HttpServletRequest request,
+            @NotNull HttpServletResponse response,
+            @NotNull FilterChain filterChain) throws ServletException, IOException {
+
+        membershipRoleCache.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            membershipRoleCache.close();
+        }
+    }
+}
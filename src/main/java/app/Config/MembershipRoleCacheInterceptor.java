@@ -0,0 +1,31 @@
+package app.Config;
+
+import app.Service.MembershipRoleCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens a {@link MembershipRoleCache} scope around the handling of each inbound
+ * STOMP message, on the executor thread that runs the @MessageMapping method.
+ */
+@Component
+public class MembershipRoleCacheInterceptor implements ExecutorChannelInterceptor {
+
+    @Autowired
+    private MembershipRoleCache membershipRoleCache;
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        membershipRoleCache.open();
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        membershipRoleCache.close();
+    }
+}
@@ -0,0 +1,48 @@
+package app.Config;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * The authenticated user of a STOMP session, resolved once at CONNECT and
+ * reused by every frame on that session. getName() is the user's short code,
+ * so /user/{code}/queue/... destinations reach the right sessions.
+ *
+ * It is a snapshot: a rename or a new profile photo shows up on messages
+ * from the next connection on.
+ */
+public final class StompPrincipal implements Principal {
+
+    private final UUID id;
+    private final String userCode;
+    private final String displayName;
+    private final String profilePhotoUrl;
+
+    public StompPrincipal(UUID id, String userCode, String displayName, String profilePhotoUrl) {
+        this.id = id;
+        this.userCode = userCode;
+        this.displayName = displayName;
+        this.profilePhotoUrl = profilePhotoUrl;
+    }
+
+    @Override
+    public String getName() {
+        return userCode;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getUserCode() {
+        return userCode;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getProfilePhotoUrl() {
+        return profilePhotoUrl;
+    }
+}
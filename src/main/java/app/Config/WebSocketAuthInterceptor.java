@@ -1,5 +1,10 @@
 package app.Config;
 
+import app.Database.DatabaseType;
+import app.Database.User;
+import app.Repository.UserRepository;
+import app.Service.GlobalShortCodeService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.stomp.StompCommand;
@@ -8,22 +13,62 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.stereotype.Component;
 
+/**
+ * Authenticates STOMP sessions. CONNECT must carry the same JWT the REST API
+ * uses, in an Authorization native header. The token is checked and the user
+ * loaded once; the resulting {@link StompPrincipal} becomes the session user,
+ * so later frames need no user lookups.
+ */
 @Component
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GlobalShortCodeService globalShortCodeService;
+
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
         StompHeaderAccessor accessor =
                 MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
 
         if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
-            String userCode = accessor.getFirstNativeHeader("userCode");
-            // Optionally also validate JWT here
-            if (userCode != null) {
-                accessor.getSessionAttributes().put("userCode", userCode);
-            }
+            // Throwing here answers the CONNECT with an ERROR frame and closes the session
+            StompPrincipal principal = authenticate(accessor.getFirstNativeHeader("Authorization"));
+
+            accessor.setUser(principal);
+            accessor.getSessionAttributes().put("userCode", principal.getUserCode());
         }
 
         return message;
     }
+
+    private StompPrincipal authenticate(String authorizationHeader) {
+        if (authorizationHeader == null || authorizationHeader.isBlank()) {
+            throw new RuntimeException("Missing Authorization header");
+        }
+        String token = authorizationHeader.startsWith("Bearer ")
+                ? authorizationHeader.substring(7)
+                : authorizationHeader;
+
+        String email;
+        try {
+            email = jwtService.getUserEmail(token);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid or expired token");
+        }
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        String userCode = user.getShortCode() != null
+                ? user.getShortCode()
+                : globalShortCodeService.getShortCode(DatabaseType.USER, user.getId());
+
+        return new StompPrincipal(user.getId(), userCode, user.getName(), user.getProfilePhotoUrl());
+    }
 }
@@ -0,0 +1,147 @@
+package app.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors behind the STOMP clientInbound and clientOutbound channels. Each
+ * channel runs on either a bounded thread pool or virtual threads, and
+ * publishes websocket.channel.* meters tagged with the channel name so the
+ * pools can be sized from production numbers.
+ */
+@Component
+public class WebSocketChannelExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketChannelExecutors.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.websocket.inbound.virtual-threads:false}")
+    private boolean inboundVirtualThreads;
+
+    @Value("${app.websocket.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${app.websocket.inbound.max-pool-size:32}")
+    private int inboundMaxPoolSize;
+
+    @Value("${app.websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.outbound.virtual-threads:false}")
+    private boolean outboundVirtualThreads;
+
+    @Value("${app.websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.outbound.queue-capacity:1000}")
+    private int outboundQueueCapacity;
+
+    // Upper bound on concurrent tasks per channel in virtual-thread mode
+    @Value("${app.websocket.virtual-thread-concurrency-limit:1000}")
+    private int virtualThreadConcurrencyLimit;
+
+    public void configureInbound(ChannelRegistration registration) {
+        configure(registration, "inbound", inboundVirtualThreads,
+                inboundCorePoolSize, inboundMaxPoolSize, inboundQueueCapacity);
+    }
+
+    public void configureOutbound(ChannelRegistration registration) {
+        configure(registration, "outbound", outboundVirtualThreads,
+                outboundCorePoolSize, outboundMaxPoolSize, outboundQueueCapacity);
+    }
+
+    private void configure(ChannelRegistration registration, String channel, boolean virtualThreads,
+                           int corePoolSize, int maxPoolSize, int queueCapacity) {
+        AtomicInteger active = new AtomicInteger();
+        Gauge.builder("websocket.channel.active", active, AtomicInteger::get)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        TaskDecorator countActive = task -> new CountedTask(task, active);
+
+        if (virtualThreads) {
+            // Virtual threads have no queue; past the limit submitters wait instead of being rejected
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ws-" + channel + "-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(virtualThreadConcurrencyLimit);
+            executor.setTaskDecorator(countActive);
+            registration.executor(executor);
+            return;
+        }
+
+        Counter rejected = Counter.builder("websocket.channel.rejected")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        ThreadPoolExecutor.AbortPolicy abort = new ThreadPoolExecutor.AbortPolicy();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ws-" + channel + "-");
+        executor.setTaskDecorator(countActive);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            logger.warn("WebSocket {} executor saturated, dropping frame for session {}", channel, sessionId(task));
+            abort.rejectedExecution(task, pool);
+        });
+        registration.taskExecutor(executor)
+                .corePoolSize(corePoolSize)
+                .maxPoolSize(maxPoolSize)
+                .queueCapacity(queueCapacity);
+
+        Gauge.builder("websocket.channel.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("websocket.channel.queue.size", executor, e -> e.getThreadPoolExecutor() != null
+                        ? e.getThreadPoolExecutor().getQueue().size()
+                        : 0)
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+
+    // The rejected task is the decorated one; unwrap it to find the frame's session
+    private static String sessionId(Runnable task) {
+        Runnable original = task instanceof CountedTask counted ? counted.task : task;
+        if (original instanceof MessageHandlingRunnable handling) {
+            return SimpMessageHeaderAccessor.getSessionId(handling.getMessage().getHeaders());
+        }
+        return null;
+    }
+
+    private static final class CountedTask implements Runnable {
+        private final Runnable task;
+        private final AtomicInteger active;
+
+        CountedTask(Runnable task, AtomicInteger active) {
+            this.task = task;
+            this.active = active;
+        }
+
+        @Override
+        public void run() {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+}
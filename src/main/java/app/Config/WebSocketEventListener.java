@@ -1,14 +1,18 @@
 package app.Config;
 
+import app.Service.PresenceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectedEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
 
 @Component
 public class WebSocketEventListener {
@@ -16,7 +20,7 @@ public class WebSocketEventListener {
     private static final Logger logger = LoggerFactory.getLogger(WebSocketEventListener.class);
 
     @Autowired
-    private SimpMessageSendingOperations messagingTemplate;
+    private PresenceService presenceService;
 
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectedEvent event) {
@@ -24,51 +28,37 @@ public class WebSocketEventListener {
 
         String sessionId = headerAccessor.getSessionId();
         logger.info("New WebSocket connection established. Session ID: {}", sessionId);
-
-        // You can extract user information from headers if needed
-        // String userCode = headerAccessor.getFirstNativeHeader("userCode");
     }
 
+    // Presence follows what the client watches: subscribing to an event or community topic joins it
     @EventListener
-    public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
+    public void handleWebSocketSubscribeListener(SessionSubscribeEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
 
-        String sessionId = headerAccessor.getSessionId();
-        String userCode = (String) headerAccessor.getSessionAttributes().get("userCode");
-
-        logger.info("WebSocket connection closed. Session ID: {}, User Code: {}",
-                sessionId, userCode);
-
-        // Notify other users that this user has disconnected
-        if (userCode != null) {
-            UserDisconnectedNotification notification = new UserDisconnectedNotification(userCode);
-            messagingTemplate.convertAndSend("/topic/user-status", notification);
-        }
+        presenceService.subscribe(headerAccessor.getSessionId(), userCode(headerAccessor),
+                headerAccessor.getSubscriptionId(), headerAccessor.getDestination());
     }
 
-    public static class UserDisconnectedNotification {
-        private String userCode;
-        private long timestamp;
+    @EventListener
+    public void handleWebSocketUnsubscribeListener(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
 
-        public UserDisconnectedNotification(String userCode) {
-            this.userCode = userCode;
-            this.timestamp = System.currentTimeMillis();
-        }
+        presenceService.unsubscribe(headerAccessor.getSessionId(), headerAccessor.getSubscriptionId());
+    }
 
-        public String getUserCode() {
-            return userCode;
-        }
+    @EventListener
+    public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
+        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
 
-        public void setUserCode(String userCode) {
-            this.userCode = userCode;
-        }
+        String sessionId = headerAccessor.getSessionId();
+        logger.info("WebSocket connection closed. Session ID: {}, User Code: {}",
+                sessionId, userCode(headerAccessor));
 
-        public long getTimestamp() {
-            return timestamp;
-        }
+        presenceService.disconnect(sessionId);
+    }
 
-        public void setTimestamp(long timestamp) {
-            this.timestamp = timestamp;
-        }
+    private String userCode(StompHeaderAccessor headerAccessor) {
+        Map<String, Object> attributes = headerAccessor.getSessionAttributes();
+        return attributes != null ? (String) attributes.get("userCode") : null;
     }
 }
@@ -10,6 +10,7 @@ public class CommunityDTO {
     private String name;
     private String description;
     private Boolean onlyAdminsCanChat;
+    private Integer messageRetentionDays;
     private UserDTO createdBy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -46,6 +47,9 @@ public class CommunityDTO {
     public Boolean getOnlyAdminsCanChat() { return onlyAdminsCanChat; }
     public void setOnlyAdminsCanChat(Boolean onlyAdminsCanChat) { this.onlyAdminsCanChat = onlyAdminsCanChat; }
 
+    public Integer getMessageRetentionDays() { return messageRetentionDays; }
+    public void setMessageRetentionDays(Integer messageRetentionDays) { this.messageRetentionDays = messageRetentionDays; }
+
     public UserDTO getCreatedBy() { return createdBy; }
     public void setCreatedBy(UserDTO createdBy) { this.createdBy = createdBy; }
 
@@ -8,6 +8,15 @@ import app.Service.GlobalShortCodeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
 @Component
 public class CommunityMapper {
 
@@ -18,6 +27,10 @@ public class CommunityMapper {
     private GlobalShortCodeService globalShortCodeService;
 
     public CommunityDTO toDTO(Community community) {
+        return toDTO(community, Collections.emptyMap());
+    }
+
+    private CommunityDTO toDTO(Community community, Map<UUID, String> codes) {
         if (community == null) {
             return null;
         }
@@ -26,32 +39,71 @@ public class CommunityMapper {
         dto.setName(community.getName());
         dto.setDescription(community.getDescription());
         dto.setOnlyAdminsCanChat(community.getOnlyAdminsCanChat());
-        dto.setCreatedBy(userMapper.toDTO(community.getCreatedBy()));
+        dto.setMessageRetentionDays(community.getMessageRetentionDays());
+        dto.setCreatedBy(userMapper.toDTO(community.getCreatedBy(), codes));
         dto.setCreatedAt(community.getCreatedAt());
         dto.setUpdatedAt(community.getUpdatedAt());
 
         // Set counts
-        dto.setMemberCount(community.getMemberships() != null ? community.getMemberships().size() : 0);
-        dto.setGroupCount(community.getGroups() != null ? community.getGroups().size() : 0);
+        dto.setMemberCount(community.getMemberCount());
+        dto.setGroupCount(community.getGroupCount());
 
-        dto.setCommunityCode(globalShortCodeService.getShortCode(DatabaseType.COMMUNITY, community.getId()));
+        dto.setCommunityCode(globalShortCodeService.getShortCode(DatabaseType.COMMUNITY, community.getId(), community.getShortCode(), codes));
 
         return dto;
     }
 
     public CommunityMembershipDTO toMembershipDTO(CommunityMembership membership) {
+        return toMembershipDTO(membership, Collections.emptyMap());
+    }
+
+    private CommunityMembershipDTO toMembershipDTO(CommunityMembership membership, Map<UUID, String> codes) {
         if (membership == null) {
             return null;
         }
 
         CommunityMembershipDTO dto = new CommunityMembershipDTO();
         dto.setId(membership.getId());
-        dto.setUser(userMapper.toDTO(membership.getUser()));
+        dto.setUser(userMapper.toDTO(membership.getUser(), codes));
         dto.setRole(membership.getRole());
         dto.setStatus(membership.getStatus());
         dto.setJoinedAt(membership.getJoinedAt());
-        dto.setCommunityCode(globalShortCodeService.getShortCode(DatabaseType.COMMUNITY, membership.getCommunity().getId()));
+        dto.setCommunityCode(globalShortCodeService.getShortCode(DatabaseType.COMMUNITY, membership.getCommunity().getId(), membership.getCommunity().getShortCode(), codes));
 
         return dto;
     }
+
+    public List<CommunityDTO> toDTOList(List<Community> communities) {
+        if (communities == null) {
+            return new ArrayList<>();
+        }
+
+        List<Community> present = communities.stream().filter(Objects::nonNull).toList();
+        Map<UUID, String> codes = new HashMap<>();
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.COMMUNITY,
+                present.stream().filter(c -> c.getShortCode() == null).map(Community::getId).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.USER,
+                present.stream().filter(c -> c.getCreatedBy() != null && c.getCreatedBy().getShortCode() == null).map(c -> c.getCreatedBy().getId()).toList()));
+
+        return communities.stream()
+                .map(community -> toDTO(community, codes))
+                .collect(Collectors.toList());
+    }
+
+    public List<CommunityMembershipDTO> toMembershipDTOList(List<CommunityMembership> memberships) {
+        if (memberships == null) {
+            return new ArrayList<>();
+        }
+
+        List<CommunityMembership> present = memberships.stream().filter(Objects::nonNull).toList();
+        Map<UUID, String> codes = new HashMap<>();
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.COMMUNITY,
+                present.stream().filter(m -> m.getCommunity().getShortCode() == null).map(m -> m.getCommunity().getId()).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.USER,
+                present.stream().filter(m -> m.getUser() != null && m.getUser().getShortCode() == null).map(m -> m.getUser().getId()).toList()));
+
+        return memberships.stream()
+                .map(membership -> toMembershipDTO(membership, codes))
+                .collect(Collectors.toList());
+    }
 }
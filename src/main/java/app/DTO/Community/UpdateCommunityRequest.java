@@ -1,5 +1,6 @@
 package app.DTO.Community;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 
 public class UpdateCommunityRequest {
@@ -10,6 +11,10 @@ public class UpdateCommunityRequest {
     @Size(max = 1000, message = "Description must be less than 1000 characters")
     private String description;
 
+    // 0 turns retention off
+    @Min(value = 0, message = "Retention must not be negative")
+    private Integer messageRetentionDays;
+
     // Constructors
     public UpdateCommunityRequest() {}
 
@@ -24,4 +29,7 @@ public class UpdateCommunityRequest {
 
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
+
+    public Integer getMessageRetentionDays() { return messageRetentionDays; }
+    public void setMessageRetentionDays(Integer messageRetentionDays) { this.messageRetentionDays = messageRetentionDays; }
 }
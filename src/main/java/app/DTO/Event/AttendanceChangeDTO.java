@@ -0,0 +1,33 @@
+package app.DTO.Event;
+
+import app.Database.AttendanceStatus;
+
+public class AttendanceChangeDTO {
+    private String userCode;
+    private String groupCode;
+    private AttendanceStatus from;
+    private AttendanceStatus to;
+
+    // Constructors
+    public AttendanceChangeDTO() {}
+
+    public AttendanceChangeDTO(String userCode, String groupCode, AttendanceStatus from, AttendanceStatus to) {
+        this.userCode = userCode;
+        this.groupCode = groupCode;
+        this.from = from;
+        this.to = to;
+    }
+
+    // Getters and Setters
+    public String getUserCode() { return userCode; }
+    public void setUserCode(String userCode) { this.userCode = userCode; }
+
+    public String getGroupCode() { return groupCode; }
+    public void setGroupCode(String groupCode) { this.groupCode = groupCode; }
+
+    public AttendanceStatus getFrom() { return from; }
+    public void setFrom(AttendanceStatus from) { this.from = from; }
+
+    public AttendanceStatus getTo() { return to; }
+    public void setTo(AttendanceStatus to) { this.to = to; }
+}
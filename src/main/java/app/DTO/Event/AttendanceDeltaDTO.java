@@ -0,0 +1,33 @@
+package app.DTO.Event;
+
+import java.util.List;
+
+/**
+ * Attendance marked at one event since the last frame, sent to
+ * /topic/event/{code}/attendance. from is null for a newly created row;
+ * stats are the event's totals after these changes.
+ */
+public class AttendanceDeltaDTO {
+    private List<AttendanceChangeDTO> changes;
+    private AttendanceStatsDTO stats;
+    private long timestamp;
+
+    // Constructors
+    public AttendanceDeltaDTO() {}
+
+    public AttendanceDeltaDTO(List<AttendanceChangeDTO> changes, AttendanceStatsDTO stats) {
+        this.changes = changes;
+        this.stats = stats;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+    public List<AttendanceChangeDTO> getChanges() { return changes; }
+    public void setChanges(List<AttendanceChangeDTO> changes) { this.changes = changes; }
+
+    public AttendanceStatsDTO getStats() { return stats; }
+    public void setStats(AttendanceStatsDTO stats) { this.stats = stats; }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+}
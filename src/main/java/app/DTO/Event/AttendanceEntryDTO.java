@@ -0,0 +1,46 @@
+package app.DTO.Event;
+
+import app.Database.AttendanceStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One roster line: just what an attendance list renders, without full user objects
+public class AttendanceEntryDTO {
+    private UUID id;
+    private String userCode;
+    private String userName;
+    private String profilePhotoUrl;
+    private String groupCode;
+    private AttendanceStatus status;
+    private String markedByCode;
+    private LocalDateTime markedAt;
+
+    // Constructors
+    public AttendanceEntryDTO() {}
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getUserCode() { return userCode; }
+    public void setUserCode(String userCode) { this.userCode = userCode; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+
+    public String getProfilePhotoUrl() { return profilePhotoUrl; }
+    public void setProfilePhotoUrl(String profilePhotoUrl) { this.profilePhotoUrl = profilePhotoUrl; }
+
+    public String getGroupCode() { return groupCode; }
+    public void setGroupCode(String groupCode) { this.groupCode = groupCode; }
+
+    public AttendanceStatus getStatus() { return status; }
+    public void setStatus(AttendanceStatus status) { this.status = status; }
+
+    public String getMarkedByCode() { return markedByCode; }
+    public void setMarkedByCode(String markedByCode) { this.markedByCode = markedByCode; }
+
+    public LocalDateTime getMarkedAt() { return markedAt; }
+    public void setMarkedAt(LocalDateTime markedAt) { this.markedAt = markedAt; }
+}
@@ -0,0 +1,40 @@
+package app.DTO.Event;
+
+import app.Database.AttendanceStatus;
+
+public class AttendanceMarkResultDTO {
+    private String userCode;
+    private String groupCode;
+    private AttendanceStatus status;
+    private boolean success;
+    private boolean created;
+    private String error;
+
+    // Constructors
+    public AttendanceMarkResultDTO() {}
+
+    public AttendanceMarkResultDTO(MarkAttendanceRequest entry) {
+        this.userCode = entry.getUserCode();
+        this.groupCode = entry.getGroupCode();
+        this.status = entry.getStatus();
+    }
+
+    // Getters and Setters
+    public String getUserCode() { return userCode; }
+    public void setUserCode(String userCode) { this.userCode = userCode; }
+
+    public String getGroupCode() { return groupCode; }
+    public void setGroupCode(String groupCode) { this.groupCode = groupCode; }
+
+    public AttendanceStatus getStatus() { return status; }
+    public void setStatus(AttendanceStatus status) { this.status = status; }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public boolean isCreated() { return created; }
+    public void setCreated(boolean created) { this.created = created; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
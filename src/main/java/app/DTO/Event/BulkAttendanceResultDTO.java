@@ -0,0 +1,35 @@
+package app.DTO.Event;
+
+import java.util.List;
+
+public class BulkAttendanceResultDTO {
+    private int created;
+    private int updated;
+    private int failed;
+    private List<AttendanceMarkResultDTO> results;
+
+    // Constructors
+    public BulkAttendanceResultDTO() {}
+
+    public BulkAttendanceResultDTO(List<AttendanceMarkResultDTO> results) {
+        this.results = results;
+        for (AttendanceMarkResultDTO result : results) {
+            if (!result.isSuccess()) failed++;
+            else if (result.isCreated()) created++;
+            else updated++;
+        }
+    }
+
+    // Getters and Setters
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public List<AttendanceMarkResultDTO> getResults() { return results; }
+    public void setResults(List<AttendanceMarkResultDTO> results) { this.results = results; }
+}
@@ -0,0 +1,21 @@
+package app.DTO.Event;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkMarkAttendanceRequest {
+
+    @NotEmpty(message = "At least one entry is required")
+    @Size(max = 1000, message = "At most 1000 entries per request")
+    private List<@Valid MarkAttendanceRequest> entries;
+
+    // Constructors
+    public BulkMarkAttendanceRequest() {}
+
+    // Getters and Setters
+    public List<MarkAttendanceRequest> getEntries() { return entries; }
+    public void setEntries(List<MarkAttendanceRequest> entries) { this.entries = entries; }
+}
@@ -19,6 +19,7 @@ public class EventDTO {
     private String location;
     private Boolean attendanceEnabled;
     private Boolean isNotice;
+    private Integer messageRetentionDays;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private int messageCount;
@@ -65,6 +66,9 @@ public class EventDTO {
     public Boolean getIsNotice() { return isNotice; }
     public void setIsNotice(Boolean isNotice) { this.isNotice = isNotice; }
 
+    public Integer getMessageRetentionDays() { return messageRetentionDays; }
+    public void setMessageRetentionDays(Integer messageRetentionDays) { this.messageRetentionDays = messageRetentionDays; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
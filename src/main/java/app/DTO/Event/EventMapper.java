@@ -1,5 +1,6 @@
 package app.DTO.Event;
 
+import app.Database.AttendanceStatus;
 import app.Database.DatabaseType;
 import app.Database.Event;
 import app.Database.EventAttendance;
@@ -8,6 +9,16 @@ import app.Service.GlobalShortCodeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
 @Component
 public class EventMapper {
 
@@ -21,6 +32,10 @@ public class EventMapper {
     }
 
     public EventDTO toDTO(Event event) {
+        return toDTO(event, Collections.emptyMap());
+    }
+
+    private EventDTO toDTO(Event event, Map<UUID, String> codes) {
         if (event == null) {
             return null;
         }
@@ -30,53 +45,58 @@ public class EventMapper {
         dto.setDescription(event.getDescription());
 
         if (event.getCommunity() != null) {
-            dto.setCommunityCode(globalShortCodeService.getShortCode(DatabaseType.COMMUNITY, event.getCommunity().getId()));
+            dto.setCommunityCode(globalShortCodeService.getShortCode(DatabaseType.COMMUNITY, event.getCommunity().getId(), event.getCommunity().getShortCode(), codes));
             dto.setCommunityName(event.getCommunity().getName());
         }
 
         if (event.getGroup() != null) {
-            dto.setGroupCode(globalShortCodeService.getShortCode(DatabaseType.GROUP, event.getGroup().getId()));
+            dto.setGroupCode(globalShortCodeService.getShortCode(DatabaseType.GROUP, event.getGroup().getId(), event.getGroup().getShortCode(), codes));
             dto.setGroupName(event.getGroup().getName());
         }
 
-        dto.setCreatedBy(userMapper.toDTO(event.getCreatedBy()));
+        dto.setCreatedBy(userMapper.toDTO(event.getCreatedBy(), codes));
         dto.setEventDate(event.getEventDate());
         dto.setEventTime(event.getEventTime());
         dto.setLocation(event.getLocation());
         dto.setAttendanceEnabled(event.getAttendanceEnabled());
         dto.setIsNotice(event.getIsNotice());
+        dto.setMessageRetentionDays(event.getMessageRetentionDays());
         dto.setCreatedAt(event.getCreatedAt());
         dto.setUpdatedAt(event.getUpdatedAt());
 
         // Set counts
-        dto.setMessageCount(event.getMessages() != null ? event.getMessages().size() : 0);
-        dto.setAttendanceCount(event.getAttendances() != null ? event.getAttendances().size() : 0);
+        dto.setMessageCount(event.getMessageCount());
+        dto.setAttendanceCount(event.getAttendanceCount());
 
-        dto.setEventCode(globalShortCodeService.getShortCode(DatabaseType.EVENTS, event.getId()));
+        dto.setEventCode(globalShortCodeService.getShortCode(DatabaseType.EVENTS, event.getId(), event.getShortCode(), codes));
 
         return dto;
     }
 
     public EventAttendanceDTO toAttendanceDTO(EventAttendance attendance) {
+        return toAttendanceDTO(attendance, Collections.emptyMap());
+    }
+
+    private EventAttendanceDTO toAttendanceDTO(EventAttendance attendance, Map<UUID, String> codes) {
         if (attendance == null) {
             return null;
         }
 
         EventAttendanceDTO dto = new EventAttendanceDTO();
         dto.setId(attendance.getId());
-        dto.setEventCode(globalShortCodeService.getShortCode(DatabaseType.EVENTS, attendance.getEvent().getId()));
+        dto.setEventCode(globalShortCodeService.getShortCode(DatabaseType.EVENTS, attendance.getEvent().getId(), attendance.getEvent().getShortCode(), codes));
         dto.setEventTitle(attendance.getEvent().getTitle());
-        dto.setUser(userMapper.toDTO(attendance.getUser()));
+        dto.setUser(userMapper.toDTO(attendance.getUser(), codes));
 
         if (attendance.getGroup() != null) {
-            dto.setGroupCode(globalShortCodeService.getShortCode(DatabaseType.GROUP, attendance.getGroup().getId()));
+            dto.setGroupCode(globalShortCodeService.getShortCode(DatabaseType.GROUP, attendance.getGroup().getId(), attendance.getGroup().getShortCode(), codes));
             dto.setGroupName(attendance.getGroup().getName());
         }
 
         dto.setStatus(attendance.getStatus());
 
         if (attendance.getMarkedBy() != null) {
-            dto.setMarkedBy(userMapper.toDTO(attendance.getMarkedBy()));
+            dto.setMarkedBy(userMapper.toDTO(attendance.getMarkedBy(), codes));
         }
 
         dto.setMarkedAt(attendance.getMarkedAt());
@@ -84,4 +104,62 @@ public class EventMapper {
 
         return dto;
     }
+
+    public List<EventDTO> toDTOList(List<Event> events) {
+        if (events == null) {
+            return new ArrayList<>();
+        }
+
+        List<Event> present = events.stream().filter(Objects::nonNull).toList();
+        Map<UUID, String> codes = new HashMap<>();
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.EVENTS,
+                present.stream().filter(e -> e.getShortCode() == null).map(Event::getId).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.COMMUNITY,
+                present.stream().filter(e -> e.getCommunity() != null && e.getCommunity().getShortCode() == null).map(e -> e.getCommunity().getId()).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.GROUP,
+                present.stream().filter(e -> e.getGroup() != null && e.getGroup().getShortCode() == null).map(e -> e.getGroup().getId()).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.USER,
+                present.stream().filter(e -> e.getCreatedBy() != null && e.getCreatedBy().getShortCode() == null).map(e -> e.getCreatedBy().getId()).toList()));
+
+        return events.stream()
+                .map(event -> toDTO(event, codes))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Map rows of EventAttendanceRepository.findEntriesBy*, resolving the codes of
+     * users and groups that don't store one inline with one query per type.
+     */
+    public List<AttendanceEntryDTO> toAttendanceEntryDTOList(List<Object[]> rows) {
+        List<UUID> userIds = new ArrayList<>();
+        List<UUID> groupIds = new ArrayList<>();
+        for (Object[] row : rows) {
+            if (row[2] == null) userIds.add((UUID) row[1]);
+            if (row[5] != null && row[6] == null) groupIds.add((UUID) row[5]);
+            if (row[8] != null && row[9] == null) userIds.add((UUID) row[8]);
+        }
+
+        Map<UUID, String> codes = new HashMap<>();
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.USER, userIds));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.GROUP, groupIds));
+
+        List<AttendanceEntryDTO> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            AttendanceEntryDTO dto = new AttendanceEntryDTO();
+            dto.setId((UUID) row[0]);
+            dto.setUserCode(globalShortCodeService.getShortCode(DatabaseType.USER, (UUID) row[1], (String) row[2], codes));
+            dto.setUserName((String) row[3]);
+            dto.setProfilePhotoUrl((String) row[4]);
+            if (row[5] != null) {
+                dto.setGroupCode(globalShortCodeService.getShortCode(DatabaseType.GROUP, (UUID) row[5], (String) row[6], codes));
+            }
+            dto.setStatus((AttendanceStatus) row[7]);
+            if (row[8] != null) {
+                dto.setMarkedByCode(globalShortCodeService.getShortCode(DatabaseType.USER, (UUID) row[8], (String) row[9], codes));
+            }
+            dto.setMarkedAt((LocalDateTime) row[10]);
+            entries.add(dto);
+        }
+        return entries;
+    }
 }
@@ -0,0 +1,52 @@
+package app.DTO.Event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of filling an event's attendance roster. Small rosters are filled
+ * inline and show up as DONE straight away; large ones go QUEUED, RUNNING,
+ * then DONE or FAILED. total is the member count estimate the job started from.
+ */
+public class RosterProgressDTO {
+
+    public enum State { QUEUED, RUNNING, DONE, FAILED }
+
+    private State state;
+    private int total;
+    private int processed;
+    private int created;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    // Constructors
+    public RosterProgressDTO() {}
+
+    public RosterProgressDTO(State state, int total) {
+        this.state = state;
+        this.total = total;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getProcessed() { return processed; }
+    public void setProcessed(int processed) { this.processed = processed; }
+
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
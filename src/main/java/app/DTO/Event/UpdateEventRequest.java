@@ -1,5 +1,6 @@
 package app.DTO.Event;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -18,6 +19,10 @@ public class UpdateEventRequest {
     @Size(max = 500, message = "Location must be less than 500 characters")
     private String location;
 
+    // 0 falls back to the community's retention
+    @Min(value = 0, message = "Retention must not be negative")
+    private Integer messageRetentionDays;
+
     // Constructors
     public UpdateEventRequest() {}
 
@@ -36,4 +41,7 @@ public class UpdateEventRequest {
 
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
+
+    public Integer getMessageRetentionDays() { return messageRetentionDays; }
+    public void setMessageRetentionDays(Integer messageRetentionDays) { this.messageRetentionDays = messageRetentionDays; }
 }
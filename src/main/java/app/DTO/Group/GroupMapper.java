@@ -8,6 +8,15 @@ import app.Service.GlobalShortCodeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
 @Component
 public class GroupMapper {
 
@@ -21,38 +30,46 @@ public class GroupMapper {
     }
 
     public GroupDTO toDTO(Group group) {
+        return toDTO(group, Collections.emptyMap());
+    }
+
+    private GroupDTO toDTO(Group group, Map<UUID, String> codes) {
         if (group == null) {
             return null;
         }
 
         GroupDTO dto = new GroupDTO();
-        dto.setCommunityCode(globalShortCodeService.getShortCode(DatabaseType.COMMUNITY, group.getCommunity().getId()));
+        dto.setCommunityCode(globalShortCodeService.getShortCode(DatabaseType.COMMUNITY, group.getCommunity().getId(), group.getCommunity().getShortCode(), codes));
         dto.setCommunityName(group.getCommunity().getName());
         dto.setName(group.getName());
         dto.setDescription(group.getDescription());
         dto.setOnlyAdminsCanChat(group.getOnlyAdminsCanChat());
-        dto.setCreatedBy(userMapper.toDTO(group.getCreatedBy()));
+        dto.setCreatedBy(userMapper.toDTO(group.getCreatedBy(), codes));
         dto.setCreatedAt(group.getCreatedAt());
         dto.setUpdatedAt(group.getUpdatedAt());
 
         // Set counts
-        dto.setMemberCount(group.getMemberships() != null ? group.getMemberships().size() : 0);
-        dto.setEventCount(group.getEvents() != null ? group.getEvents().size() : 0);
+        dto.setMemberCount(group.getMemberCount());
+        dto.setEventCount(group.getEventCount());
 
-        dto.setGroupCode(globalShortCodeService.getShortCode(DatabaseType.GROUP, group.getId()));
+        dto.setGroupCode(globalShortCodeService.getShortCode(DatabaseType.GROUP, group.getId(), group.getShortCode(), codes));
 
         return dto;
     }
 
     public GroupMembershipDTO toMembershipDTO(GroupMembership membership) {
+        return toMembershipDTO(membership, Collections.emptyMap());
+    }
+
+    private GroupMembershipDTO toMembershipDTO(GroupMembership membership, Map<UUID, String> codes) {
         if (membership == null) {
             return null;
         }
 
         GroupMembershipDTO dto = new GroupMembershipDTO();
         dto.setId(membership.getId());
-        dto.setUser(userMapper.toDTO(membership.getUser()));
-        dto.setGroupCode(globalShortCodeService.getShortCode(DatabaseType.GROUP, membership.getGroup().getId()));
+        dto.setUser(userMapper.toDTO(membership.getUser(), codes));
+        dto.setGroupCode(globalShortCodeService.getShortCode(DatabaseType.GROUP, membership.getGroup().getId(), membership.getGroup().getShortCode(), codes));
         dto.setGroupName(membership.getGroup().getName());
         dto.setRole(membership.getRole());
         dto.setStatus(membership.getStatus());
@@ -60,4 +77,40 @@ public class GroupMapper {
 
         return dto;
     }
+
+    public List<GroupDTO> toDTOList(List<Group> groups) {
+        if (groups == null) {
+            return new ArrayList<>();
+        }
+
+        List<Group> present = groups.stream().filter(Objects::nonNull).toList();
+        Map<UUID, String> codes = new HashMap<>();
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.GROUP,
+                present.stream().filter(g -> g.getShortCode() == null).map(Group::getId).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.COMMUNITY,
+                present.stream().filter(g -> g.getCommunity().getShortCode() == null).map(g -> g.getCommunity().getId()).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.USER,
+                present.stream().filter(g -> g.getCreatedBy() != null && g.getCreatedBy().getShortCode() == null).map(g -> g.getCreatedBy().getId()).toList()));
+
+        return groups.stream()
+                .map(group -> toDTO(group, codes))
+                .collect(Collectors.toList());
+    }
+
+    public List<GroupMembershipDTO> toMembershipDTOList(List<GroupMembership> memberships) {
+        if (memberships == null) {
+            return new ArrayList<>();
+        }
+
+        List<GroupMembership> present = memberships.stream().filter(Objects::nonNull).toList();
+        Map<UUID, String> codes = new HashMap<>();
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.GROUP,
+                present.stream().filter(m -> m.getGroup().getShortCode() == null).map(m -> m.getGroup().getId()).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.USER,
+                present.stream().filter(m -> m.getUser() != null && m.getUser().getShortCode() == null).map(m -> m.getUser().getId()).toList()));
+
+        return memberships.stream()
+                .map(membership -> toMembershipDTO(membership, codes))
+                .collect(Collectors.toList());
+    }
 }
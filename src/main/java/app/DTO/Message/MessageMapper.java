@@ -6,7 +6,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -16,16 +21,20 @@ public class MessageMapper {
     private GlobalShortCodeService globalShortCodeService;
 
     public MessageDTO toDTO(Message message) {
+        return toDTO(message, Collections.emptyMap());
+    }
+
+    private MessageDTO toDTO(Message message, Map<UUID, String> codes) {
         if (message == null) {
             return null;
         }
 
         MessageDTO dto = new MessageDTO();
         dto.setId(message.getId());
-        dto.setEventCode(message.getEvent() != null ? globalShortCodeService.getShortCode(DatabaseType.EVENTS, message.getEvent().getId()) : null);
-        dto.setCommunityCode(message.getCommunity() != null ? globalShortCodeService.getShortCode(DatabaseType.COMMUNITY, message.getCommunity().getId()) : null);
-        dto.setGroupCode(message.getGroup() != null ? globalShortCodeService.getShortCode(DatabaseType.GROUP, message.getGroup().getId()) : null);
-        dto.setUserCode(message.getSender() != null ? globalShortCodeService.getShortCode(DatabaseType.USER, message.getSender().getId()) : null);
+        dto.setEventCode(message.getEvent() != null ? globalShortCodeService.getShortCode(DatabaseType.EVENTS, message.getEvent().getId(), message.getEvent().getShortCode(), codes) : null);
+        dto.setCommunityCode(message.getCommunity() != null ? globalShortCodeService.getShortCode(DatabaseType.COMMUNITY, message.getCommunity().getId(), message.getCommunity().getShortCode(), codes) : null);
+        dto.setGroupCode(message.getGroup() != null ? globalShortCodeService.getShortCode(DatabaseType.GROUP, message.getGroup().getId(), message.getGroup().getShortCode(), codes) : null);
+        dto.setUserCode(message.getSender() != null ? globalShortCodeService.getShortCode(DatabaseType.USER, message.getSender().getId(), message.getSender().getShortCode(), codes) : null);
         dto.setSenderName(message.getSender() != null ? message.getSender().getName() : null);
         dto.setSenderProfilePhotoUrl(message.getSender() != null ? message.getSender().getProfilePhotoUrl() : null);
         dto.setType(message.getType());
@@ -102,8 +111,21 @@ public class MessageMapper {
         if (messages == null) {
             return new ArrayList<>();
         }
+
+        // Resolve every code the page needs up front: one query per type instead of four per message
+        List<Message> present = messages.stream().filter(Objects::nonNull).toList();
+        Map<UUID, String> codes = new HashMap<>();
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.EVENTS,
+                present.stream().filter(m -> m.getEvent() != null && m.getEvent().getShortCode() == null).map(m -> m.getEvent().getId()).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.COMMUNITY,
+                present.stream().filter(m -> m.getCommunity() != null && m.getCommunity().getShortCode() == null).map(m -> m.getCommunity().getId()).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.GROUP,
+                present.stream().filter(m -> m.getGroup() != null && m.getGroup().getShortCode() == null).map(m -> m.getGroup().getId()).toList()));
+        codes.putAll(globalShortCodeService.getShortCodes(DatabaseType.USER,
+                present.stream().filter(m -> m.getSender() != null && m.getSender().getShortCode() == null).map(m -> m.getSender().getId()).toList()));
+
         return messages.stream()
-                .map(this::toDTO)
+                .map(message -> toDTO(message, codes))
                 .collect(Collectors.toList());
     }
 }
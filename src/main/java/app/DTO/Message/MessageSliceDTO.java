@@ -0,0 +1,38 @@
+package app.DTO.Message;
+
+import java.util.List;
+
+/**
+ * One window of message history, newest first. nextCursor fetches older
+ * messages and is null once the start of the history is reached; prevCursor
+ * fetches anything newer than the first message in this window.
+ */
+public class MessageSliceDTO {
+    private List<MessageDTO> content;
+    private String nextCursor;
+    private String prevCursor;
+    private boolean hasNext;
+
+    // Constructors
+    public MessageSliceDTO() {}
+
+    public MessageSliceDTO(List<MessageDTO> content, String nextCursor, String prevCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+        this.hasNext = hasNext;
+    }
+
+    // Getters and Setters
+    public List<MessageDTO> getContent() { return content; }
+    public void setContent(List<MessageDTO> content) { this.content = content; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public String getPrevCursor() { return prevCursor; }
+    public void setPrevCursor(String prevCursor) { this.prevCursor = prevCursor; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
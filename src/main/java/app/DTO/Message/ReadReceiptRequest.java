@@ -0,0 +1,23 @@
+package app.DTO.Message;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Sent by a client to /app/event/{code}/read or /app/community/{code}/read
+ * with the id and createdAt of the newest message it has shown.
+ */
+public class ReadReceiptRequest {
+    private UUID messageId;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ReadReceiptRequest() {}
+
+    // Getters and Setters
+    public UUID getMessageId() { return messageId; }
+    public void setMessageId(UUID messageId) { this.messageId = messageId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,33 @@
+package app.DTO.Message;
+
+import java.util.List;
+
+/**
+ * Who is typing in one event or community right now. Sent to
+ * /topic/event/{code}/typing and /topic/community/{code}/typing whenever
+ * the set changes. userCodes is capped for big rooms, count is not.
+ */
+public class TypingStatusDTO {
+    private List<String> userCodes;
+    private int count;
+    private long timestamp;
+
+    // Constructors
+    public TypingStatusDTO() {}
+
+    public TypingStatusDTO(List<String> userCodes, int count) {
+        this.userCodes = userCodes;
+        this.count = count;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+    public List<String> getUserCodes() { return userCodes; }
+    public void setUserCodes(List<String> userCodes) { this.userCodes = userCodes; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+}
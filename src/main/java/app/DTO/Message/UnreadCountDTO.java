@@ -0,0 +1,29 @@
+package app.DTO.Message;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class UnreadCountDTO {
+    private long unreadCount;
+    private UUID lastReadMessageId;
+    private LocalDateTime lastReadAt;
+
+    // Constructors
+    public UnreadCountDTO() {}
+
+    public UnreadCountDTO(long unreadCount, UUID lastReadMessageId, LocalDateTime lastReadAt) {
+        this.unreadCount = unreadCount;
+        this.lastReadMessageId = lastReadMessageId;
+        this.lastReadAt = lastReadAt;
+    }
+
+    // Getters and Setters
+    public long getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(long unreadCount) { this.unreadCount = unreadCount; }
+
+    public UUID getLastReadMessageId() { return lastReadMessageId; }
+    public void setLastReadMessageId(UUID lastReadMessageId) { this.lastReadMessageId = lastReadMessageId; }
+
+    public LocalDateTime getLastReadAt() { return lastReadAt; }
+    public void setLastReadAt(LocalDateTime lastReadAt) { this.lastReadAt = lastReadAt; }
+}
@@ -0,0 +1,32 @@
+package app.DTO.Presence;
+
+import java.util.List;
+
+/**
+ * Users who came online or went offline in one scope since the last delta.
+ * Published to /topic/event/{code}/presence and /topic/community/{code}/presence.
+ */
+public class PresenceDeltaDTO {
+    private List<String> online;
+    private List<String> offline;
+    private long timestamp;
+
+    // Constructors
+    public PresenceDeltaDTO() {}
+
+    public PresenceDeltaDTO(List<String> online, List<String> offline) {
+        this.online = online;
+        this.offline = offline;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+    public List<String> getOnline() { return online; }
+    public void setOnline(List<String> online) { this.online = online; }
+
+    public List<String> getOffline() { return offline; }
+    public void setOffline(List<String> offline) { this.offline = offline; }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,23 @@
+package app.DTO.Presence;
+
+import java.util.List;
+
+public class PresenceSnapshotDTO {
+    private List<String> online;
+    private int count;
+
+    // Constructors
+    public PresenceSnapshotDTO() {}
+
+    public PresenceSnapshotDTO(List<String> online) {
+        this.online = online;
+        this.count = online.size();
+    }
+
+    // Getters and Setters
+    public List<String> getOnline() { return online; }
+    public void setOnline(List<String> online) { this.online = online; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+}
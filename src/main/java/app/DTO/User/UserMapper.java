@@ -6,7 +6,13 @@ import app.Service.GlobalShortCodeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import javax.xml.crypto.Data;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 public class UserMapper {
@@ -15,6 +21,13 @@ public class UserMapper {
     private GlobalShortCodeService globalShortCodeService;
 
     public UserDTO toDTO(User user) {
+        return toDTO(user, Collections.emptyMap());
+    }
+
+    /**
+     * Map a user, taking its code from codes prefetched with {@link GlobalShortCodeService#getShortCodes}
+     */
+    public UserDTO toDTO(User user, Map<UUID, String> codes) {
         if (user == null) {
             return null;
         }
@@ -27,7 +40,20 @@ public class UserMapper {
         dto.setCreatedAt(user.getCreatedAt());
         dto.setUpdatedAt(user.getUpdatedAt());
         dto.setActive(user.getActive());
-        dto.setUserCode(globalShortCodeService.getShortCode(DatabaseType.USER, user.getId()));
+        dto.setUserCode(globalShortCodeService.getShortCode(DatabaseType.USER, user.getId(), user.getShortCode(), codes));
         return dto;
     }
+
+    public List<UserDTO> toDTOList(List<User> users) {
+        if (users == null) {
+            return new ArrayList<>();
+        }
+
+        Map<UUID, String> codes = globalShortCodeService.getShortCodes(DatabaseType.USER,
+                users.stream().filter(Objects::nonNull).filter(u -> u.getShortCode() == null).map(User::getId).toList());
+
+        return users.stream()
+                .map(user -> toDTO(user, codes))
+                .collect(Collectors.toList());
+    }
 }
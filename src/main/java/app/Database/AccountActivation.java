@@ -7,7 +7,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "account_activations")
+@Table(name = "account_activations",
+        indexes = {
+                @Index(name = "idx_account_activations_user_created", columnList = "user_id, created_at DESC")
+        })
 public class AccountActivation {
     @Id
     @GeneratedValue
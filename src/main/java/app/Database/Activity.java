@@ -8,6 +8,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_activity_type_reference", columnList = "type, reference_id")
+})
 public class Activity {
     @Id
     @GeneratedValue
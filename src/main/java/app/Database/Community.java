@@ -1,6 +1,7 @@
 package app.Database;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -10,13 +11,30 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "communities")
+@Table(name = "communities",
+        indexes = {
+                @Index(name = "idx_communities_created_by", columnList = "created_by")
+        })
 public class Community {
     @Id
     @GeneratedValue
     @org.hibernate.annotations.UuidGenerator
     private UUID id;
 
+    // Copy of the reserved global short code, so lookups by code stay on this table
+    @Column(name = "short_code", unique = true, length = 16)
+    private String shortCode;
+
+    // Denormalized child counts. Only ever changed by SQL increments and the
+    // reconciliation job, never by flushing this entity.
+    @ColumnDefault("0")
+    @Column(name = "member_count", nullable = false, insertable = false, updatable = false)
+    private Integer memberCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "group_count", nullable = false, insertable = false, updatable = false)
+    private Integer groupCount = 0;
+
     @Column(nullable = false)
     private String name;
     
@@ -26,6 +44,10 @@ public class Community {
     @Column(nullable = false)
     private Boolean onlyAdminsCanChat = false;
 
+    // Messages older than this many days are purged; null keeps them forever
+    @Column(name = "message_retention_days")
+    private Integer messageRetentionDays;
+
     @ManyToOne
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
@@ -60,6 +82,30 @@ public class Community {
         this.id = id;
     }
 
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public Integer getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(Integer memberCount) {
+        this.memberCount = memberCount;
+    }
+
+    public Integer getGroupCount() {
+        return groupCount;
+    }
+
+    public void setGroupCount(Integer groupCount) {
+        this.groupCount = groupCount;
+    }
+
     public String getName() {
         return name;
     }
@@ -84,6 +130,14 @@ public class Community {
         this.onlyAdminsCanChat = onlyAdminsCanChat;
     }
 
+    public Integer getMessageRetentionDays() {
+        return messageRetentionDays;
+    }
+
+    public void setMessageRetentionDays(Integer messageRetentionDays) {
+        this.messageRetentionDays = messageRetentionDays;
+    }
+
     public User getCreatedBy() {
         return createdBy;
     }
@@ -9,7 +9,14 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "community_memberships",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "community_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "community_id"}),
+        indexes = {
+                // (user_id, community_id) lookups are served by the unique constraint
+                @Index(name = "idx_community_memberships_community_user_status", columnList = "community_id, user_id, status"),
+                @Index(name = "idx_community_memberships_community_status", columnList = "community_id, status"),
+                @Index(name = "idx_community_memberships_community_role", columnList = "community_id, role"),
+                @Index(name = "idx_community_memberships_user_status", columnList = "user_id, status")
+        })
 public class CommunityMembership {
     @Id
     @GeneratedValue
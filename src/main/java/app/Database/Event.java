@@ -1,6 +1,7 @@
 package app.Database;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -12,13 +13,32 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events",
+        indexes = {
+                @Index(name = "idx_events_community_date", columnList = "community_id, event_date"),
+                @Index(name = "idx_events_group_date", columnList = "group_id, event_date"),
+                @Index(name = "idx_events_created_by", columnList = "created_by")
+        })
 public class Event {
     @Id
     @GeneratedValue
     @org.hibernate.annotations.UuidGenerator
     private UUID id;
 
+    // Copy of the reserved global short code, so lookups by code stay on this table
+    @Column(name = "short_code", unique = true, length = 16)
+    private String shortCode;
+
+    // Denormalized child counts. Only ever changed by SQL increments and the
+    // reconciliation job, never by flushing this entity.
+    @ColumnDefault("0")
+    @Column(name = "message_count", nullable = false, insertable = false, updatable = false)
+    private Integer messageCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "attendance_count", nullable = false, insertable = false, updatable = false)
+    private Integer attendanceCount = 0;
+
     @Column(nullable = false)
     private String title;
     
@@ -47,6 +67,10 @@ public class Event {
     @Column(nullable = false)
     private Boolean isNotice = false;
 
+    // Overrides the community's retention for this event's chat; null inherits it
+    @Column(name = "message_retention_days")
+    private Integer messageRetentionDays;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -71,6 +95,30 @@ public class Event {
         this.id = id;
     }
 
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public Integer getMessageCount() {
+        return messageCount;
+    }
+
+    public void setMessageCount(Integer messageCount) {
+        this.messageCount = messageCount;
+    }
+
+    public Integer getAttendanceCount() {
+        return attendanceCount;
+    }
+
+    public void setAttendanceCount(Integer attendanceCount) {
+        this.attendanceCount = attendanceCount;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -151,6 +199,14 @@ public class Event {
         this.isNotice = isNotice;
     }
 
+    public Integer getMessageRetentionDays() {
+        return messageRetentionDays;
+    }
+
+    public void setMessageRetentionDays(Integer messageRetentionDays) {
+        this.messageRetentionDays = messageRetentionDays;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -9,7 +9,15 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "event_attendance",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"}))
+        // A member of several groups gets one row per group; notices use a null group_id
+        uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id", "group_id"}),
+        indexes = {
+                // (event_id, user_id[, group_id]) lookups are served by the unique constraint
+                @Index(name = "idx_event_attendance_event_group_status", columnList = "event_id, group_id, status"),
+                @Index(name = "idx_event_attendance_event_status", columnList = "event_id, status"),
+                @Index(name = "idx_event_attendance_group_status", columnList = "group_id, status"),
+                @Index(name = "idx_event_attendance_user", columnList = "user_id")
+        })
 public class EventAttendance {
     @Id
     @GeneratedValue
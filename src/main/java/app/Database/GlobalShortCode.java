@@ -7,7 +7,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "global_short_codes")
+@Table(name = "global_short_codes",
+        indexes = {
+                // Serves the (type, referenceId) lookups and finding unclaimed pool codes
+                @Index(name = "idx_global_short_codes_type_reference", columnList = "type, reference_id")
+        })
 public class GlobalShortCode {
 
     @Id
@@ -74,4 +78,9 @@ public class GlobalShortCode {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    // Pool codes are inserted ahead of time and only bound to an entity when handed out
+    public boolean isReserved() {
+        return referenceId != null;
+    }
 }
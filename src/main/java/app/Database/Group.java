@@ -1,6 +1,7 @@
 package app.Database;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -10,13 +11,30 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "groups")
+@Table(name = "groups",
+        indexes = {
+                @Index(name = "idx_groups_community_created", columnList = "community_id, created_at DESC")
+        })
 public class Group {
     @Id
     @GeneratedValue
     @org.hibernate.annotations.UuidGenerator
     private UUID id;
 
+    // Copy of the reserved global short code, so lookups by code stay on this table
+    @Column(name = "short_code", unique = true, length = 16)
+    private String shortCode;
+
+    // Denormalized child counts. Only ever changed by SQL increments and the
+    // reconciliation job, never by flushing this entity.
+    @ColumnDefault("0")
+    @Column(name = "member_count", nullable = false, insertable = false, updatable = false)
+    private Integer memberCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "event_count", nullable = false, insertable = false, updatable = false)
+    private Integer eventCount = 0;
+
     @ManyToOne
     @JoinColumn(name = "community_id", nullable = false)
     private Community community;
@@ -64,6 +82,30 @@ public class Group {
         this.id = id;
     }
 
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public Integer getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(Integer memberCount) {
+        this.memberCount = memberCount;
+    }
+
+    public Integer getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(Integer eventCount) {
+        this.eventCount = eventCount;
+    }
+
     public Community getCommunity() {
         return community;
     }
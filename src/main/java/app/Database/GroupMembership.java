@@ -9,7 +9,14 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "group_memberships",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "group_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "group_id"}),
+        indexes = {
+                // (user_id, group_id) lookups are served by the unique constraint
+                @Index(name = "idx_group_memberships_group_user_status", columnList = "group_id, user_id, status"),
+                @Index(name = "idx_group_memberships_group_status", columnList = "group_id, status"),
+                @Index(name = "idx_group_memberships_group_role", columnList = "group_id, role"),
+                @Index(name = "idx_group_memberships_user_status", columnList = "user_id, status")
+        })
 public class GroupMembership {
     @Id
     @GeneratedValue
@@ -6,7 +6,10 @@ import org.hibernate.annotations.GenericGenerator;
 import java.util.UUID;
 
 @Entity
-@Table(name = "media")
+@Table(name = "media",
+        indexes = {
+                @Index(name = "idx_media_message", columnList = "message_id")
+        })
 public class Media {
 
     @Id
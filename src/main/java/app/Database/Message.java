@@ -1,9 +1,8 @@
 package app.Database;
 
 import jakarta.persistence.*;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.GenericGenerator;
-import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -11,7 +10,13 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages",
+        indexes = {
+                @Index(name = "idx_messages_event_created", columnList = "event_id, created_at DESC"),
+                @Index(name = "idx_messages_community_created", columnList = "community_id, created_at DESC"),
+                @Index(name = "idx_messages_group_created", columnList = "group_id, created_at DESC"),
+                @Index(name = "idx_messages_user", columnList = "user_id")
+        })
 public class Message {
 
     @Id
@@ -42,19 +47,34 @@ public class Message {
     @Column(columnDefinition = "TEXT")
     private String content;
 
-    @CreationTimestamp
     private LocalDateTime createdAt;
 
-    @UpdateTimestamp
     private LocalDateTime updatedAt;
 
-    // Multiple media support
+    // Multiple media support. Batch-loaded so mapping a list of messages doesn't
+    // issue one media query per message.
     @OneToMany(mappedBy = "message", cascade = CascadeType.ALL)
+    @BatchSize(size = 100)
     private List<Media> mediaList = new ArrayList<>();
 
     public Message() {
     }
 
+    // Stamped in memory when persist() is called rather than at flush time, so the
+    // saved entity can be mapped to a DTO without reading the row back
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public Message(UUID id, Event event, MessageType type, User sender, String content, LocalDateTime createdAt, List<Media> mediaList) {
         this.id = id;
         this.event = event;
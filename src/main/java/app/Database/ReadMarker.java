@@ -0,0 +1,114 @@
+package app.Database;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The newest message a user has read in one event or community chat, as the
+ * (createdAt, id) position of that message. Exactly one of event and
+ * community is set. Written in batches by ReadMarkerService.
+ *
+ * The foreign keys cascade in the database, so deleting a user, event or
+ * community (directly or through a group or community cascade) takes its
+ * markers with it without loading them.
+ */
+@Entity
+@Table(name = "read_markers",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_read_markers_user_event", columnNames = {"user_id", "event_id"}),
+                @UniqueConstraint(name = "uk_read_markers_user_community", columnNames = {"user_id", "community_id"})
+        })
+public class ReadMarker {
+
+    @Id
+    @GeneratedValue
+    @org.hibernate.annotations.UuidGenerator
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Event event;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "community_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Community community;
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private UUID lastReadMessageId;
+
+    @Column(name = "last_read_at", nullable = false)
+    private LocalDateTime lastReadAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public ReadMarker() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Event getEvent() {
+        return event;
+    }
+
+    public void setEvent(Event event) {
+        this.event = event;
+    }
+
+    public Community getCommunity() {
+        return community;
+    }
+
+    public void setCommunity(Community community) {
+        this.community = community;
+    }
+
+    public UUID getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
+    public void setLastReadMessageId(UUID lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+
+    public LocalDateTime getLastReadAt() {
+        return lastReadAt;
+    }
+
+    public void setLastReadAt(LocalDateTime lastReadAt) {
+        this.lastReadAt = lastReadAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -20,6 +20,10 @@ public class User {
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
+    // Copy of the reserved global short code, so lookups by code stay on this table
+    @Column(name = "short_code", unique = true, length = 16)
+    private String shortCode;
+
     @Column(name = "email", unique = true, nullable = false, length = 255)
     private String email;
 
@@ -78,6 +82,14 @@ public class User {
         this.id = id;
     }
 
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
     public String getEmail() {
         return email;
     }
@@ -1,9 +1,11 @@
 package app.RESTController;
 
 import app.DTO.Event.*;
+import app.Database.AttendanceStatus;
 import app.Service.EventService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -132,26 +134,57 @@ public class EventController {
         return ResponseEntity.status(HttpStatus.CREATED).body(attendance);
     }
 
+    /**
+     * POST /api/events/{eventCode}/attendance/bulk
+     * Mark attendance for many users in one request
+     */
+    @PostMapping("/{eventCode}/attendance/bulk")
+    public ResponseEntity<BulkAttendanceResultDTO> bulkMarkAttendance(
+            @PathVariable String eventCode,
+            @Valid @RequestBody BulkMarkAttendanceRequest request,
+            @RequestHeader("userCode") String userCode) {
+        BulkAttendanceResultDTO result = eventService.bulkMarkAttendance(eventCode, userCode, request);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * GET /api/events/{eventCode}/attendance
-     * Get all attendance records for an event
+     * Get attendance records for an event, optionally filtered by status
      */
     @GetMapping("/{eventCode}/attendance")
-    public ResponseEntity<List<EventAttendanceDTO>> getEventAttendance(
-            @PathVariable String eventCode) {
-        List<EventAttendanceDTO> attendance = eventService.getEventAttendance(eventCode);
+    public ResponseEntity<Page<AttendanceEntryDTO>> getEventAttendance(
+            @PathVariable String eventCode,
+            @RequestParam(required = false) AttendanceStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Page<AttendanceEntryDTO> attendance = eventService.getEventAttendance(eventCode, status, page, size);
         return ResponseEntity.ok(attendance);
     }
 
+    /**
+     * GET /api/events/{eventCode}/attendance/initialization
+     * Progress of filling the attendance roster after attendance was enabled.
+     * Progress lives on the node that runs the roster; others answer 404.
+     */
+    @GetMapping("/{eventCode}/attendance/initialization")
+    public ResponseEntity<RosterProgressDTO> getRosterProgress(
+            @PathVariable String eventCode) {
+        RosterProgressDTO progress = eventService.getRosterProgress(eventCode);
+        return progress != null ? ResponseEntity.ok(progress) : ResponseEntity.notFound().build();
+    }
+
     /**
      * GET /api/events/{eventCode}/attendance/group/{groupCode}
      * Get attendance records for an event by group
      */
     @GetMapping("/{eventCode}/attendance/group/{groupCode}")
-    public ResponseEntity<List<EventAttendanceDTO>> getEventAttendanceByGroup(
+    public ResponseEntity<Page<AttendanceEntryDTO>> getEventAttendanceByGroup(
             @PathVariable String eventCode,
-            @PathVariable String groupCode) {
-        List<EventAttendanceDTO> attendance = eventService.getEventAttendanceByGroup(eventCode, groupCode);
+            @PathVariable String groupCode,
+            @RequestParam(required = false) AttendanceStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Page<AttendanceEntryDTO> attendance = eventService.getEventAttendanceByGroup(eventCode, groupCode, status, page, size);
         return ResponseEntity.ok(attendance);
     }
 
@@ -2,13 +2,18 @@ package app.RESTController;
 
 import app.DTO.Message.CreateMessageRequest;
 import app.DTO.Message.MessageDTO;
+import app.DTO.Message.MessageSliceDTO;
+import app.DTO.Message.UnreadCountDTO;
 import app.Service.MessageService;
+import app.Service.ReadMarkerService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -21,6 +26,9 @@ public class MessageController {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private ReadMarkerService readMarkerService;
+
     @PostMapping
     public ResponseEntity<MessageDTO> createMessage(
             @Valid @RequestBody CreateMessageRequest request,
@@ -52,12 +60,32 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/event/{eventCode}/history")
+    public ResponseEntity<MessageSliceDTO> getMessageHistoryByEventCode(
+            @PathVariable String eventCode,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(messageService.getMessageHistoryByEventCode(eventCode, before, after, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @GetMapping("/event/{eventCode}/all")
     public ResponseEntity<List<MessageDTO>> getAllMessagesByEventCode(@PathVariable String eventCode) {
         List<MessageDTO> messages = messageService.getAllMessagesByEventCode(eventCode);
         return ResponseEntity.ok(messages);
     }
 
+    // Streams the full history as NDJSON instead of building one large list
+    @GetMapping(value = "/event/{eventCode}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMessagesByEventCode(@PathVariable String eventCode) {
+        StreamingResponseBody body = out -> messageService.exportMessagesByEventCode(eventCode, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/event/{eventCode}/user/{userCode}")
     public ResponseEntity<List<MessageDTO>> getMessagesByEventCodeAndUserCode(
             @PathVariable String eventCode,
@@ -72,6 +100,17 @@ public class MessageController {
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping("/event/{eventCode}/unread")
+    public ResponseEntity<UnreadCountDTO> getEventUnreadCount(
+            @PathVariable String eventCode,
+            @RequestHeader("userCode") String userCode) {
+        try {
+            return ResponseEntity.ok(readMarkerService.getEventUnreadCount(eventCode, userCode));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @GetMapping("/community/{communityCode}")
     public ResponseEntity<Page<MessageDTO>> getMessagesByCommunityCode(
             @PathVariable String communityCode,
@@ -81,18 +120,48 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/community/{communityCode}/history")
+    public ResponseEntity<MessageSliceDTO> getMessageHistoryByCommunityCode(
+            @PathVariable String communityCode,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(messageService.getMessageHistoryByCommunityCode(communityCode, before, after, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @GetMapping("/community/{communityCode}/all")
     public ResponseEntity<List<MessageDTO>> getAllMessagesByCommunityCode(@PathVariable String communityCode) {
         List<MessageDTO> messages = messageService.getAllMessagesByCommunityCode(communityCode);
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping(value = "/community/{communityCode}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMessagesByCommunityCode(@PathVariable String communityCode) {
+        StreamingResponseBody body = out -> messageService.exportMessagesByCommunityCode(communityCode, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/community/{communityCode}/count")
     public ResponseEntity<Long> getCommunityMessageCount(@PathVariable String communityCode) {
         Long count = messageService.getMessageCountByCommunityCode(communityCode);
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping("/community/{communityCode}/unread")
+    public ResponseEntity<UnreadCountDTO> getCommunityUnreadCount(
+            @PathVariable String communityCode,
+            @RequestHeader("userCode") String userCode) {
+        try {
+            return ResponseEntity.ok(readMarkerService.getCommunityUnreadCount(communityCode, userCode));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @DeleteMapping("/{messageId}")
     public ResponseEntity<Void> deleteMessage(
             @PathVariable UUID messageId,
@@ -0,0 +1,26 @@
+package app.RESTController;
+
+import app.DTO.Presence.PresenceSnapshotDTO;
+import app.Service.PresenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/presence")
+@CrossOrigin(origins = "*")
+public class PresenceController {
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @GetMapping("/event/{eventCode}")
+    public ResponseEntity<PresenceSnapshotDTO> getEventPresence(@PathVariable String eventCode) {
+        return ResponseEntity.ok(presenceService.getEventPresence(eventCode));
+    }
+
+    @GetMapping("/community/{communityCode}")
+    public ResponseEntity<PresenceSnapshotDTO> getCommunityPresence(@PathVariable String communityCode) {
+        return ResponseEntity.ok(presenceService.getCommunityPresence(communityCode));
+    }
+}
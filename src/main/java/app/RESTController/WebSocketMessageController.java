@@ -1,8 +1,14 @@
 package app.RESTController;
 
+import app.Config.StompPrincipal;
+import app.DTO.Event.AttendanceDeltaDTO;
 import app.DTO.Message.CreateMessageRequest;
 import app.DTO.Message.MessageDTO;
+import app.DTO.Message.ReadReceiptRequest;
+import app.Service.AttendanceLiveService;
 import app.Service.MessageService;
+import app.Service.ReadMarkerService;
+import app.Service.TypingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -10,6 +16,7 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 import java.util.UUID;
@@ -20,6 +27,15 @@ public class WebSocketMessageController {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private TypingService typingService;
+
+    @Autowired
+    private ReadMarkerService readMarkerService;
+
+    @Autowired
+    private AttendanceLiveService attendanceLiveService;
+
     @Autowired
     private SimpMessageSendingOperations messagingTemplate;
 
@@ -50,14 +66,13 @@ public class WebSocketMessageController {
     private void processMessage(String eventCode, String communityCode,
                                 CreateMessageRequest request, SimpMessageHeaderAccessor headerAccessor) {
         try {
-            String userCode = (String) headerAccessor.getSessionAttributes().get("userCode");
-            if (userCode == null) throw new RuntimeException("User not authenticated");
+            StompPrincipal principal = principal(headerAccessor);
 
             request.setEventCode(eventCode);
             request.setCommunityCode(communityCode);
             request.setGroupCode(null); // Explicitly null for consistency
 
-            messageService.createMessage(request, userCode);
+            messageService.submitMessage(request, principal);
         } catch (Exception e) {
             if (headerAccessor.getUser() != null) {
                 messagingTemplate.convertAndSendToUser(
@@ -69,6 +84,81 @@ public class WebSocketMessageController {
         }
     }
 
+    /**
+     * Typing indicator for an event
+     * Client sends to: /app/event/{eventCode}/typing
+     */
+    @MessageMapping("/event/{eventCode}/typing")
+    public void eventTyping(
+            @DestinationVariable String eventCode,
+            @Payload TypingNotification notification,
+            SimpMessageHeaderAccessor headerAccessor) {
+        typingService.eventTyping(eventCode, principal(headerAccessor).getUserCode(), notification.isTyping());
+    }
+
+    /**
+     * Typing indicator for a community
+     * Client sends to: /app/community/{communityCode}/typing
+     */
+    @MessageMapping("/community/{communityCode}/typing")
+    public void communityTyping(
+            @DestinationVariable String communityCode,
+            @Payload TypingNotification notification,
+            SimpMessageHeaderAccessor headerAccessor) {
+        typingService.communityTyping(communityCode, principal(headerAccessor).getUserCode(), notification.isTyping());
+    }
+
+    /**
+     * Mark an event chat as read up to a message
+     * Client sends to: /app/event/{eventCode}/read
+     */
+    @MessageMapping("/event/{eventCode}/read")
+    public void markEventRead(
+            @DestinationVariable String eventCode,
+            @Payload ReadReceiptRequest request,
+            SimpMessageHeaderAccessor headerAccessor) {
+        try {
+            readMarkerService.markEventRead(eventCode, principal(headerAccessor).getId(),
+                    request.getMessageId(), request.getCreatedAt());
+        } catch (Exception e) {
+            sendError(headerAccessor, "Error marking messages read: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mark a community chat as read up to a message
+     * Client sends to: /app/community/{communityCode}/read
+     */
+    @MessageMapping("/community/{communityCode}/read")
+    public void markCommunityRead(
+            @DestinationVariable String communityCode,
+            @Payload ReadReceiptRequest request,
+            SimpMessageHeaderAccessor headerAccessor) {
+        try {
+            readMarkerService.markCommunityRead(communityCode, principal(headerAccessor).getId(),
+                    request.getMessageId(), request.getCreatedAt());
+        } catch (Exception e) {
+            sendError(headerAccessor, "Error marking messages read: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Attendance totals to start a live roll-call view from
+     * Client subscribes to: /app/event/{eventCode}/attendance, then /topic/event/{eventCode}/attendance
+     */
+    @SubscribeMapping("/event/{eventCode}/attendance")
+    public AttendanceDeltaDTO attendanceSnapshot(
+            @DestinationVariable String eventCode,
+            SimpMessageHeaderAccessor headerAccessor) {
+        try {
+            principal(headerAccessor);
+            return attendanceLiveService.snapshot(eventCode);
+        } catch (Exception e) {
+            sendError(headerAccessor, "Error loading attendance: " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Delete a message
      */
@@ -78,18 +168,17 @@ public class WebSocketMessageController {
             SimpMessageHeaderAccessor headerAccessor) {
 
         try {
-            String userCode = (String) headerAccessor.getSessionAttributes().get("userCode");
-            if (userCode == null) throw new RuntimeException("User not authenticated");
+            StompPrincipal principal = principal(headerAccessor);
 
             MessageDTO message = messageService.getMessageById(messageId);
-            messageService.deleteMessage(messageId, userCode);
+            messageService.deleteMessage(messageId, principal);
 
             String topic = null;
             if (message.getEventCode() != null) topic = "/topic/event/" + message.getEventCode() + "/messages";
             else if (message.getCommunityCode() != null) topic = "/topic/community/" + message.getCommunityCode() + "/messages";
 
             if (topic != null) {
-                messagingTemplate.convertAndSend(topic + "/deleted", new MessageDeletedNotification(messageId, userCode));
+                messagingTemplate.convertAndSend(topic + "/deleted", new MessageDeletedNotification(messageId, principal.getUserCode()));
             }
 
         } catch (Exception e) {
@@ -103,7 +192,21 @@ public class WebSocketMessageController {
         }
     }
 
-    // DTO for typing notifications
+    private void sendError(SimpMessageHeaderAccessor headerAccessor, String error) {
+        if (headerAccessor.getUser() != null) {
+            messagingTemplate.convertAndSendToUser(headerAccessor.getUser().getName(), "/queue/errors", error);
+        }
+    }
+
+    // Set once by WebSocketAuthInterceptor at CONNECT
+    private StompPrincipal principal(SimpMessageHeaderAccessor headerAccessor) {
+        if (headerAccessor.getUser() instanceof StompPrincipal principal) {
+            return principal;
+        }
+        throw new RuntimeException("User not authenticated");
+    }
+
+    // DTO for typing notifications; only isTyping is read, the sender comes from the session
     public static class TypingNotification {
         private String userCode;
         private String userName;
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -62,4 +63,8 @@ public interface CommunityMembershipRepository extends JpaRepository<CommunityMe
 
     // Count members in a community
     long countByCommunityId(UUID communityId);
+
+    // Member counts for many communities at once: rows of (communityId, count)
+    @Query("SELECT m.community.id, COUNT(m) FROM CommunityMembership m WHERE m.community.id IN :communityIds GROUP BY m.community.id")
+    List<Object[]> countMembersByCommunityIds(@Param("communityIds") Collection<UUID> communityIds);
 }
@@ -2,17 +2,25 @@ package app.Repository;
 
 import app.Database.Community;
 import app.Database.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface CommunityRepository extends JpaRepository<Community, UUID> {
 
+    // Find by the short code stored on the row itself
+    Optional<Community> findByShortCode(String shortCode);
+
     // Find communities created by a specific user
     List<Community> findByCreatedBy(User user);
 
@@ -30,4 +38,29 @@ public interface CommunityRepository extends JpaRepository<Community, UUID> {
     // Count total members in a community
     @Query("SELECT COUNT(m) FROM CommunityMembership m WHERE m.community.id = :communityId")
     Long countMembersByCommunityId(@Param("communityId") UUID communityId);
-}
\ No newline at end of file
+
+    // Denormalized counters, changed in the same transaction as the child rows
+    @Modifying
+    @Query("UPDATE Community c SET c.memberCount = c.memberCount + :delta WHERE c.id = :id")
+    int adjustMemberCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Community c SET c.groupCount = c.groupCount + :delta WHERE c.id = :id")
+    int adjustGroupCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    // Stored counters for reconciliation: rows of (id, memberCount, groupCount)
+    @Query("SELECT c.id, c.memberCount, c.groupCount FROM Community c ORDER BY c.id")
+    List<Object[]> findCounters(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Community c SET " +
+            "c.memberCount = (SELECT COUNT(m) FROM CommunityMembership m WHERE m.community.id = c.id), " +
+            "c.groupCount = (SELECT COUNT(g) FROM Group g WHERE g.community.id = c.id) " +
+            "WHERE c.id IN :ids")
+    int recomputeCounters(@Param("ids") Collection<UUID> ids);
+
+    // Retention policies for community (notice) chats: rows of (communityId, days)
+    @Query("SELECT c.id, c.messageRetentionDays FROM Community c WHERE c.messageRetentionDays IS NOT NULL")
+    List<Object[]> findMessageRetention();
+}
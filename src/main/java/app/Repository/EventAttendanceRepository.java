@@ -1,11 +1,14 @@
 package app.Repository;
 
 import app.Database.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -75,4 +78,28 @@ public interface EventAttendanceRepository extends JpaRepository<EventAttendance
 
     @Query("SELECT COUNT(ea) FROM EventAttendance ea WHERE ea.event = :event AND ea.status = :status")
     int countByEventAndStatus(@Param("event") Event event, @Param("status") AttendanceStatus status);
+
+    // Slim roster rows, optionally narrowed to one status:
+    // (id, userId, userCode, userName, userPhoto, groupId, groupCode, status, markedById, markedByCode, markedAt)
+    @Query(value = "SELECT ea.id, u.id, u.shortCode, u.name, u.profilePhotoUrl, g.id, g.shortCode, ea.status, mb.id, mb.shortCode, ea.markedAt " +
+            "FROM EventAttendance ea JOIN ea.user u LEFT JOIN ea.group g LEFT JOIN ea.markedBy mb " +
+            "WHERE ea.event.id = :eventId AND (:status IS NULL OR ea.status = :status) ORDER BY u.name, ea.id",
+            countQuery = "SELECT COUNT(ea) FROM EventAttendance ea WHERE ea.event.id = :eventId AND (:status IS NULL OR ea.status = :status)")
+    Page<Object[]> findEntriesByEventId(@Param("eventId") UUID eventId, @Param("status") AttendanceStatus status, Pageable pageable);
+
+    // Same rows for one group at an event
+    @Query(value = "SELECT ea.id, u.id, u.shortCode, u.name, u.profilePhotoUrl, g.id, g.shortCode, ea.status, mb.id, mb.shortCode, ea.markedAt " +
+            "FROM EventAttendance ea JOIN ea.user u JOIN ea.group g LEFT JOIN ea.markedBy mb " +
+            "WHERE ea.event.id = :eventId AND g.id = :groupId AND (:status IS NULL OR ea.status = :status) ORDER BY u.name, ea.id",
+            countQuery = "SELECT COUNT(ea) FROM EventAttendance ea WHERE ea.event.id = :eventId AND ea.group.id = :groupId AND (:status IS NULL OR ea.status = :status)")
+    Page<Object[]> findEntriesByEventIdAndGroupId(@Param("eventId") UUID eventId, @Param("groupId") UUID groupId,
+                                                  @Param("status") AttendanceStatus status, Pageable pageable);
+
+    // Existing rows of many users at one event: rows of (id, userId, groupId, status)
+    @Query("SELECT ea.id, ea.user.id, ea.group.id, ea.status FROM EventAttendance ea WHERE ea.event.id = :eventId AND ea.user.id IN :userIds")
+    List<Object[]> findMarksByEventIdAndUserIds(@Param("eventId") UUID eventId, @Param("userIds") Collection<UUID> userIds);
+
+    // Attendance row counts for many events at once: rows of (eventId, count)
+    @Query("SELECT ea.event.id, COUNT(ea) FROM EventAttendance ea WHERE ea.event.id IN :eventIds GROUP BY ea.event.id")
+    List<Object[]> countByEventIds(@Param("eventIds") Collection<UUID> eventIds);
 }
@@ -4,18 +4,26 @@ import app.Database.Community;
 import app.Database.Event;
 import app.Database.Group;
 import app.Database.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, UUID> {
 
+    // Find by the short code stored on the row itself
+    Optional<Event> findByShortCode(String shortCode);
+
     // Find all events in a community (community-wide events)
     List<Event> findByCommunity(Community community);
 
@@ -82,4 +90,34 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
 
     @Query("SELECT e FROM Event e WHERE e.eventDate >= :startDate AND e.eventDate <= :endDate ORDER BY e.eventDate, e.eventTime")
     List<Event> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Event counts for many groups at once: rows of (groupId, count)
+    @Query("SELECT e.group.id, COUNT(e) FROM Event e WHERE e.group.id IN :groupIds GROUP BY e.group.id")
+    List<Object[]> countEventsByGroupIds(@Param("groupIds") Collection<UUID> groupIds);
+
+    // Denormalized counters, changed in the same transaction as the child rows
+    @Modifying
+    @Query("UPDATE Event e SET e.messageCount = e.messageCount + :delta WHERE e.id = :id")
+    int adjustMessageCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.attendanceCount = e.attendanceCount + :delta WHERE e.id = :id")
+    int adjustAttendanceCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    // Stored counters for reconciliation: rows of (id, messageCount, attendanceCount)
+    @Query("SELECT e.id, e.messageCount, e.attendanceCount FROM Event e ORDER BY e.id")
+    List<Object[]> findCounters(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Event e SET " +
+            "e.messageCount = (SELECT COUNT(m) FROM Message m WHERE m.event.id = e.id), " +
+            "e.attendanceCount = (SELECT COUNT(a) FROM EventAttendance a WHERE a.event.id = e.id) " +
+            "WHERE e.id IN :ids")
+    int recomputeCounters(@Param("ids") Collection<UUID> ids);
+
+    // Retention policies: rows of (eventId, days). An event's own setting wins over its community's.
+    @Query("SELECT e.id, COALESCE(e.messageRetentionDays, c.messageRetentionDays) FROM Event e JOIN e.community c " +
+            "WHERE e.messageRetentionDays IS NOT NULL OR c.messageRetentionDays IS NOT NULL")
+    List<Object[]> findMessageRetention();
 }
@@ -2,8 +2,13 @@ package app.Repository;
 
 import app.Database.DatabaseType;
 import app.Database.GlobalShortCode;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,4 +30,20 @@ public interface GlobalShortCodeRepository extends JpaRepository<GlobalShortCode
     Optional<GlobalShortCode> findByCodeAndType(String code, DatabaseType type);
 
     void deleteByType(DatabaseType type);
+
+    // Batch lookups
+    List<GlobalShortCode> findByCodeIn(Collection<String> codes);
+
+    List<GlobalShortCode> findByTypeAndReferenceIdIn(DatabaseType type, Collection<UUID> referenceIds);
+
+    // Codes bound to an entity, for warming the cache
+    List<GlobalShortCode> findByReferenceIdIsNotNull(Pageable pageable);
+
+    // Pre-reserved pool codes
+    List<GlobalShortCode> findByTypeAndReferenceIdIsNull(DatabaseType type, Pageable pageable);
+
+    // Bind a pooled code to its entity; returns 0 if another instance claimed it first
+    @Modifying
+    @Query("UPDATE GlobalShortCode g SET g.referenceId = :referenceId WHERE g.code = :code AND g.referenceId IS NULL")
+    int claim(@Param("code") String code, @Param("referenceId") UUID referenceId);
 }
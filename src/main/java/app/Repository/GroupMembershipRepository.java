@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -73,4 +74,8 @@ public interface GroupMembershipRepository extends JpaRepository<GroupMembership
 
     // Count members in a group
     long countByGroupId(UUID groupId);
+
+    // Member counts for many groups at once: rows of (groupId, count)
+    @Query("SELECT gm.group.id, COUNT(gm) FROM GroupMembership gm WHERE gm.group.id IN :groupIds GROUP BY gm.group.id")
+    List<Object[]> countMembersByGroupIds(@Param("groupIds") Collection<UUID> groupIds);
 }
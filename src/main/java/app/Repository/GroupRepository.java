@@ -3,17 +3,25 @@ package app.Repository;
 import app.Database.Community;
 import app.Database.Group;
 import app.Database.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, UUID> {
 
+    // Find by the short code stored on the row itself
+    Optional<Group> findByShortCode(String shortCode);
+
     // Find all groups in a community
     List<Group> findByCommunity(Community community);
 
@@ -46,4 +54,33 @@ public interface GroupRepository extends JpaRepository<Group, UUID> {
 
     // Count groups in a community
     long countByCommunityId(UUID communityId);
+
+    // Which of these ids are groups of the community
+    @Query("SELECT g.id FROM Group g WHERE g.community.id = :communityId AND g.id IN :ids")
+    List<UUID> findIdsInCommunity(@Param("communityId") UUID communityId, @Param("ids") Collection<UUID> ids);
+
+    // Group counts for many communities at once: rows of (communityId, count)
+    @Query("SELECT g.community.id, COUNT(g) FROM Group g WHERE g.community.id IN :communityIds GROUP BY g.community.id")
+    List<Object[]> countGroupsByCommunityIds(@Param("communityIds") Collection<UUID> communityIds);
+
+    // Denormalized counters, changed in the same transaction as the child rows
+    @Modifying
+    @Query("UPDATE Group g SET g.memberCount = g.memberCount + :delta WHERE g.id = :id")
+    int adjustMemberCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Group g SET g.eventCount = g.eventCount + :delta WHERE g.id = :id")
+    int adjustEventCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    // Stored counters for reconciliation: rows of (id, memberCount, eventCount)
+    @Query("SELECT g.id, g.memberCount, g.eventCount FROM Group g ORDER BY g.id")
+    List<Object[]> findCounters(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Group g SET " +
+            "g.memberCount = (SELECT COUNT(m) FROM GroupMembership m WHERE m.group.id = g.id), " +
+            "g.eventCount = (SELECT COUNT(e) FROM Event e WHERE e.group.id = g.id) " +
+            "WHERE g.id IN :ids")
+    int recomputeCounters(@Param("ids") Collection<UUID> ids);
 }
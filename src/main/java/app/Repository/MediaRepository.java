@@ -3,10 +3,12 @@ package app.Repository;
 import app.Database.Media;
 import app.Database.MediaType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,5 +27,17 @@ public interface MediaRepository extends JpaRepository<Media, UUID> {
             @Param("mediaType") MediaType mediaType
     );
 
-    void deleteByMessageId(UUID messageId);
+    // Set-based deletes, run before the matching message delete
+
+    @Modifying
+    @Query("DELETE FROM Media m WHERE m.message.id = :messageId")
+    int deleteByMessageId(@Param("messageId") UUID messageId);
+
+    @Modifying
+    @Query("DELETE FROM Media m WHERE m.message.id IN :messageIds")
+    int deleteByMessageIds(@Param("messageIds") Collection<UUID> messageIds);
+
+    @Modifying
+    @Query("DELETE FROM Media m WHERE m.message.id IN (SELECT msg.id FROM Message msg WHERE msg.event.id = :eventId)")
+    int deleteByEventId(@Param("eventId") UUID eventId);
 }
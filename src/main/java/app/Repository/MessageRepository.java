@@ -1,19 +1,30 @@
 package app.Repository;
 
 import app.Database.Message;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, UUID> {
 
+    // Rows the JDBC driver pulls per round trip when streaming a full history
+    String STREAM_FETCH_SIZE = "500";
+
     @Query("SELECT m FROM Message m WHERE m.event.id = :eventId ORDER BY m.createdAt DESC")
     Page<Message> findByEventIdOrderByCreatedAtDesc(@Param("eventId") UUID eventId, Pageable pageable);
 
@@ -47,5 +58,95 @@ public interface MessageRepository extends JpaRepository<Message, UUID> {
     @Query("SELECT COUNT(m) FROM Message m WHERE m.group.id = :groupId")
     Long countByGroupId(@Param("groupId") UUID groupId);
 
-    void deleteByEventId(UUID eventId);
+    // Set-based deletes. They skip the persistence context and the Media cascade,
+    // so callers delete the media rows first (see MediaRepository).
+
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.event.id = :eventId")
+    int deleteByEventId(@Param("eventId") UUID eventId);
+
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+    // Retention: the oldest messages before a cutoff, one bounded chunk at a time
+    @Query("SELECT m.id FROM Message m WHERE m.event.id = :eventId AND m.createdAt < :cutoff ORDER BY m.createdAt ASC")
+    List<UUID> findIdsByEventIdCreatedBefore(@Param("eventId") UUID eventId, @Param("cutoff") LocalDateTime cutoff,
+                                             Pageable pageable);
+
+    @Query("SELECT m.id FROM Message m WHERE m.community.id = :communityId AND m.createdAt < :cutoff ORDER BY m.createdAt ASC")
+    List<UUID> findIdsByCommunityIdCreatedBefore(@Param("communityId") UUID communityId,
+                                                 @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Message counts for many events at once: rows of (eventId, count)
+    @Query("SELECT m.event.id, COUNT(m) FROM Message m WHERE m.event.id IN :eventIds GROUP BY m.event.id")
+    List<Object[]> countByEventIds(@Param("eventIds") Collection<UUID> eventIds);
+
+    // Keyset pagination on (createdAt, id). "Before" walks back to older messages,
+    // "after" walks forward in ascending order; Slice fetches one extra row instead of a COUNT.
+
+    @Query("SELECT m FROM Message m WHERE m.event.id = :eventId ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findLatestByEventId(@Param("eventId") UUID eventId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.event.id = :eventId " +
+            "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findByEventIdBefore(@Param("eventId") UUID eventId, @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.event.id = :eventId " +
+            "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+            "ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<Message> findByEventIdAfter(@Param("eventId") UUID eventId, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.community.id = :communityId ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findLatestByCommunityId(@Param("communityId") UUID communityId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.community.id = :communityId " +
+            "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findByCommunityIdBefore(@Param("communityId") UUID communityId, @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.community.id = :communityId " +
+            "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+            "ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<Message> findByCommunityIdAfter(@Param("communityId") UUID communityId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") UUID id, Pageable pageable);
+
+    // Unread counts: messages from other users positioned after a read marker.
+    // Served by the (event_id, created_at) and (community_id, created_at) indexes.
+
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.event.id = :eventId AND m.sender.id <> :userId " +
+            "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id))")
+    long countUnreadByEventId(@Param("eventId") UUID eventId, @Param("userId") UUID userId,
+                              @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id);
+
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.community.id = :communityId AND m.sender.id <> :userId " +
+            "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id))")
+    long countUnreadByCommunityId(@Param("communityId") UUID communityId, @Param("userId") UUID userId,
+                                  @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id);
+
+    // Users without a marker haven't read anything yet
+    long countByEventIdAndSenderIdNot(UUID eventId, UUID userId);
+
+    long countByCommunityIdAndSenderIdNot(UUID communityId, UUID userId);
+
+    // Forward-only streams for the history export. Must be consumed inside a
+    // transaction and closed; the read-only hint skips dirty checking.
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.event.id = :eventId ORDER BY m.createdAt ASC, m.id ASC")
+    Stream<Message> streamByEventId(@Param("eventId") UUID eventId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.community.id = :communityId ORDER BY m.createdAt ASC, m.id ASC")
+    Stream<Message> streamByCommunityId(@Param("communityId") UUID communityId);
 }
@@ -0,0 +1,16 @@
+package app.Repository;
+
+import app.Database.ReadMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReadMarkerRepository extends JpaRepository<ReadMarker, UUID> {
+
+    Optional<ReadMarker> findByUserIdAndEventId(UUID userId, UUID eventId);
+
+    Optional<ReadMarker> findByUserIdAndCommunityId(UUID userId, UUID communityId);
+}
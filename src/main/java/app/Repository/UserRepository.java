@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,6 +14,9 @@ import java.util.UUID;
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
 
+    // Find by the short code stored on the row itself
+    Optional<User> findByShortCode(String shortCode);
+
     Optional<User> findById(UUID id);
 
     // Find user by email (for login)
@@ -21,6 +25,10 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     // Check if email already exists (for registration validation)
     boolean existsByEmail(String email);
 
+    // Which of these ids belong to a user
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
     // Find users by name (partial match, case-insensitive)
     @Query("SELECT u FROM User u WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<User> searchByName(@Param("name") String name);
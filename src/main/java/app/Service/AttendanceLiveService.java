@@ -0,0 +1,154 @@
+package app.Service;
+
+import app.Database.DatabaseType;
+import app.DTO.Event.AttendanceChangeDTO;
+import app.DTO.Event.AttendanceDeltaDTO;
+import app.DTO.Event.AttendanceStatsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live attendance for organizers taking roll. Committed marks are buffered
+ * per event and sent to /topic/event/{code}/attendance at most once per
+ * flush interval, together with the event's totals. Those come from the
+ * stats cache, which already holds every mark committed on this node; in
+ * broker relay mode, where marks also land on other nodes, they are reloaded
+ * from the database for each frame instead. Within a window only the first and last status of
+ * each (user, group) are kept, so toggling a user back and forth collapses to
+ * one change or none.
+ *
+ * Clients get a starting snapshot by subscribing to
+ * /app/event/{code}/attendance, which answers that one subscription with the
+ * current totals (see WebSocketMessageController). Subscribing there before
+ * the topic lets a client apply deltas on top of the snapshot instead of
+ * polling the stats endpoint.
+ */
+@Service
+public class AttendanceLiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceLiveService.class);
+
+    private final MessageFanout messageFanout;
+    private final AttendanceStatsService attendanceStatsService;
+    private final GlobalShortCodeService globalShortCodeService;
+    private final boolean relayMode;
+
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+
+    private final Counter changes;
+    private final Counter frames;
+    private final Counter snapshots;
+
+    public AttendanceLiveService(MessageFanout messageFanout,
+                                 AttendanceStatsService attendanceStatsService,
+                                 GlobalShortCodeService globalShortCodeService,
+                                 @Value("${app.websocket.broker.mode:simple}") String brokerMode,
+                                 MeterRegistry meterRegistry) {
+        this.messageFanout = messageFanout;
+        this.attendanceStatsService = attendanceStatsService;
+        this.globalShortCodeService = globalShortCodeService;
+        this.relayMode = "relay".equalsIgnoreCase(brokerMode);
+
+        Gauge.builder("attendance.live.pending", pending, Map::size).register(meterRegistry);
+        this.changes = Counter.builder("attendance.live.changes").register(meterRegistry);
+        this.frames = Counter.builder("attendance.live.frames").register(meterRegistry);
+        this.snapshots = Counter.builder("attendance.live.snapshots").register(meterRegistry);
+    }
+
+    /**
+     * Queue marks for the next frame once the surrounding transaction commits.
+     */
+    public void recordChanges(UUID eventId, String eventCode, List<AttendanceChangeDTO> marks) {
+        if (marks.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(eventId, eventCode, marks);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(eventId, eventCode, marks);
+            }
+        });
+    }
+
+    private void enqueue(UUID eventId, String eventCode, List<AttendanceChangeDTO> marks) {
+        changes.increment(marks.size());
+        // Merged under the map's lock, so publish() never takes a batch that is still being filled
+        pending.compute(eventId, (id, batch) -> {
+            Pending current = batch != null ? batch : new Pending(eventCode);
+            for (AttendanceChangeDTO mark : marks) {
+                // Keep the status from before the window and the latest one
+                current.changes.merge(mark.getUserCode() + "/" + mark.getGroupCode(), mark,
+                        (first, latest) -> new AttendanceChangeDTO(first.getUserCode(), first.getGroupCode(),
+                                first.getFrom(), latest.getTo()));
+            }
+            return current;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.attendance.live.flush-interval-ms:500}")
+    public void publish() {
+        for (UUID eventId : pending.keySet()) {
+            Pending batch = pending.remove(eventId);
+            if (batch == null) {
+                continue;
+            }
+
+            List<AttendanceChangeDTO> window = new ArrayList<>(batch.changes.values());
+            window.removeIf(change -> change.getFrom() == change.getTo());
+            if (window.isEmpty()) {
+                continue;
+            }
+
+            try {
+                // With a broker relay, marks made on other nodes aren't in this node's cache
+                AttendanceStatsDTO stats = relayMode
+                        ? attendanceStatsService.refresh(eventId)
+                        : attendanceStatsService.getStats(eventId);
+                messageFanout.publish("/topic/event/" + batch.eventCode + "/attendance",
+                        new AttendanceDeltaDTO(window, stats));
+                frames.increment();
+            } catch (RuntimeException e) {
+                logger.warn("Attendance delta for event {} dropped: {}", eventId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Current totals of an event with no changes, as the first frame of a live view.
+     */
+    public AttendanceDeltaDTO snapshot(String eventCode) {
+        UUID eventId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.EVENTS, eventCode);
+        AttendanceDeltaDTO snapshot = new AttendanceDeltaDTO(List.of(), attendanceStatsService.getStats(eventId));
+        snapshots.increment();
+        return snapshot;
+    }
+
+    // Changes of one event waiting for the next frame, keyed by userCode/groupCode
+    private static class Pending {
+        final String eventCode;
+        final Map<String, AttendanceChangeDTO> changes = new LinkedHashMap<>();
+
+        Pending(String eventCode) {
+            this.eventCode = eventCode;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package app.Service;
+
+import app.Database.Event;
+import app.DTO.Event.RosterProgressDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fills an event's attendance roster with one PENDING row per accepted member
+ * of its group, or of its community for notices, using INSERT ... SELECT
+ * rather than a lookup and a save per member.
+ *
+ * Members that already have a row are skipped by a NOT EXISTS guard, which
+ * also covers notices, whose null group_id the unique constraint can't see.
+ * On PostgreSQL, ON CONFLICT DO NOTHING additionally absorbs concurrent runs.
+ *
+ * Rosters above async-threshold members are filled in the background in
+ * chunks of chunk-size members, walking the membership table by user_id.
+ * Each chunk commits on its own. Progress is kept in memory per event.
+ *
+ * That progress is local to the node that ran the roster. On other nodes
+ * getProgress() returns null, /attendance/initialization answers 404 and
+ * isInProgress() doesn't block a second run; the NOT EXISTS guard (and ON
+ * CONFLICT on PostgreSQL) keeps such a run from adding duplicate rows.
+ */
+@Service
+public class AttendanceRosterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceRosterService.class);
+
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
+    // %1$s membership table, %2$s its scope column, %3$s group_id value, %4$s id expression,
+    // %5$s optional user_id range, %6$s optional conflict clause, %7$s group_id match
+    private static final String INSERT_ROSTER =
+            "INSERT INTO event_attendance (id, event_id, user_id, group_id, status, created_at) " +
+            "SELECT %4$s, ?, m.user_id, %3$s, 'PENDING', CURRENT_TIMESTAMP FROM %1$s m " +
+            "WHERE m.%2$s = ? AND m.status = 'ACCEPTED'%5$s " +
+            "AND NOT EXISTS (SELECT 1 FROM event_attendance a " +
+            "WHERE a.event_id = ? AND a.user_id = m.user_id AND a.group_id %7$s)%6$s";
+
+    private static final String NEXT_CHUNK =
+            "SELECT m.user_id FROM %1$s m WHERE m.%2$s = ? AND m.status = 'ACCEPTED' AND m.user_id > ? " +
+            "ORDER BY m.user_id LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityCountService entityCountService;
+
+    @Autowired
+    private AttendanceStatsService attendanceStatsService;
+
+    private final int asyncThreshold;
+    private final int chunkSize;
+    private final long progressTtlMs;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<UUID, RosterProgressDTO> progress = new ConcurrentHashMap<>();
+
+    private String idExpression;
+    private String conflictClause;
+
+    public AttendanceRosterService(@Value("${app.attendance.roster.async-threshold:5000}") int asyncThreshold,
+                                   @Value("${app.attendance.roster.chunk-size:1000}") int chunkSize,
+                                   @Value("${app.attendance.roster.progress-ttl-ms:3600000}") long progressTtlMs,
+                                   PlatformTransactionManager transactionManager) {
+        this.asyncThreshold = asyncThreshold;
+        this.chunkSize = chunkSize;
+        this.progressTtlMs = progressTtlMs;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Ids are generated in SQL; PostgreSQL and the H2 test database spell it differently
+    @PostConstruct
+    void detectDatabase() throws SQLException {
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+            boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            idExpression = postgres ? "gen_random_uuid()" : "RANDOM_UUID()";
+            conflictClause = postgres ? " ON CONFLICT DO NOTHING" : "";
+        }
+    }
+
+    public boolean isLarge(Event event) {
+        return estimateSize(event) > asyncThreshold;
+    }
+
+    public boolean isInProgress(UUID eventId) {
+        RosterProgressDTO current = progress.get(eventId);
+        return current != null
+                && (current.getState() == RosterProgressDTO.State.QUEUED || current.getState() == RosterProgressDTO.State.RUNNING);
+    }
+
+    public RosterProgressDTO getProgress(UUID eventId) {
+        return progress.get(eventId);
+    }
+
+    /**
+     * Fill the roster in the caller's transaction with a single statement.
+     * The event row must already be flushed.
+     */
+    public int initialize(Event event) {
+        RosterProgressDTO state = start(event.getId(), estimateSize(event), RosterProgressDTO.State.RUNNING);
+
+        UUID groupId = event.getGroup() != null ? event.getGroup().getId() : null;
+        int created = jdbcTemplate.update(rosterSql(groupId != null, false),
+                rosterParams(event.getId(), groupId, event.getCommunity().getId(), null, null));
+        if (created > 0) {
+            entityCountService.adjustEventAttendances(event, created);
+            attendanceStatsService.invalidate(event.getId());
+        }
+
+        state.setProcessed(state.getTotal());
+        state.setCreated(created);
+        finish(state, RosterProgressDTO.State.DONE, null);
+        return created;
+    }
+
+    public void markQueued(Event event) {
+        start(event.getId(), estimateSize(event), RosterProgressDTO.State.QUEUED);
+    }
+
+    /**
+     * Fill a large roster chunk by chunk. Call only once the event is committed.
+     */
+    @Async
+    public void initializeInChunks(UUID eventId, UUID groupId, UUID communityId) {
+        RosterProgressDTO state = progress.computeIfAbsent(eventId,
+                id -> new RosterProgressDTO(RosterProgressDTO.State.QUEUED, 0));
+        state.setState(RosterProgressDTO.State.RUNNING);
+
+        boolean group = groupId != null;
+        UUID scopeId = group ? groupId : communityId;
+        String nextChunk = String.format(NEXT_CHUNK, group ? "group_memberships" : "community_memberships",
+                group ? "group_id" : "community_id");
+        String insert = rosterSql(group, true);
+
+        try {
+            UUID after = MIN_UUID;
+            while (true) {
+                List<UUID> userIds = jdbcTemplate.queryForList(nextChunk, UUID.class, scopeId, after, chunkSize);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                UUID from = after;
+                UUID to = userIds.get(userIds.size() - 1);
+
+                Integer created = transactionTemplate.execute(status -> {
+                    int count = jdbcTemplate.update(insert, rosterParams(eventId, groupId, communityId, from, to));
+                    if (count > 0) {
+                        entityCountService.adjustEventAttendances(eventId, count);
+                    }
+                    return count;
+                });
+
+                if (created > 0) {
+                    attendanceStatsService.invalidate(eventId);
+                }
+                state.setProcessed(state.getProcessed() + userIds.size());
+                state.setCreated(state.getCreated() + created);
+                after = to;
+                if (userIds.size() < chunkSize) {
+                    break;
+                }
+            }
+            finish(state, RosterProgressDTO.State.DONE, null);
+        } catch (RuntimeException e) {
+            logger.error("Attendance roster for event {} failed after {} members: {}",
+                    eventId, state.getProcessed(), e.getMessage());
+            finish(state, RosterProgressDTO.State.FAILED, e.getMessage());
+        }
+    }
+
+    private String rosterSql(boolean group, boolean chunked) {
+        return String.format(INSERT_ROSTER,
+                group ? "group_memberships" : "community_memberships",
+                group ? "group_id" : "community_id",
+                group ? "?" : "NULL",
+                idExpression,
+                chunked ? " AND m.user_id > ? AND m.user_id <= ?" : "",
+                conflictClause,
+                group ? "= ?" : "IS NULL");
+    }
+
+    // Positional order follows INSERT_ROSTER
+    private Object[] rosterParams(UUID eventId, UUID groupId, UUID communityId, UUID from, UUID to) {
+        List<Object> params = new ArrayList<>();
+        params.add(eventId);
+        if (groupId != null) {
+            params.add(groupId);
+        }
+        params.add(groupId != null ? groupId : communityId);
+        if (from != null) {
+            params.add(from);
+            params.add(to);
+        }
+        params.add(eventId);
+        if (groupId != null) {
+            params.add(groupId);
+        }
+        return params.toArray();
+    }
+
+    private int estimateSize(Event event) {
+        return event.getGroup() != null ? event.getGroup().getMemberCount() : event.getCommunity().getMemberCount();
+    }
+
+    private RosterProgressDTO start(UUID eventId, int total, RosterProgressDTO.State initial) {
+        // Forget finished runs past their TTL so the map stays small
+        LocalDateTime expired = LocalDateTime.now().minus(Duration.ofMillis(progressTtlMs));
+        progress.values().removeIf(p -> p.getFinishedAt() != null && p.getFinishedAt().isBefore(expired));
+
+        RosterProgressDTO state = new RosterProgressDTO(initial, total);
+        progress.put(eventId, state);
+        return state;
+    }
+
+    private void finish(RosterProgressDTO state, RosterProgressDTO.State result, String error) {
+        state.setError(error);
+        state.setFinishedAt(LocalDateTime.now());
+        state.setState(result);
+    }
+}
@@ -0,0 +1,153 @@
+package app.Service;
+
+import app.Database.AttendanceStatus;
+import app.DTO.Event.AttendanceStatsDTO;
+import app.Repository.EventAttendanceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-event attendance statistics, loaded with one GROUP BY status query and
+ * then kept in memory. Marking attendance moves one row between buckets, so
+ * the cached counts are adjusted in place instead of being reloaded. Changes
+ * that touch many rows at once (roster initialization, event deletion) drop
+ * the entry and the next read reloads it.
+ *
+ * Adjustments are applied after the surrounding transaction commits, so a
+ * rolled back mark never shows up. Entries also expire after ttl-ms, which
+ * bounds any drift from a mark racing a reload.
+ *
+ * The cache is per node and only sees marks made on that node. In broker
+ * relay mode, where marks land on any node, entries expire after
+ * relay-ttl-ms instead, and the totals pushed with live deltas come from
+ * refresh() rather than the cache. With the simple broker the cache is
+ * complete and live deltas read it through getStats().
+ */
+@Service
+public class AttendanceStatsService {
+
+    @Autowired
+    private EventAttendanceRepository attendanceRepository;
+
+    private final long ttlMs;
+    private final int maxEvents;
+
+    private final Map<UUID, Stats> cache = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter loads;
+
+    public AttendanceStatsService(@Value("${app.attendance.stats.ttl-ms:300000}") long ttlMs,
+                                  @Value("${app.attendance.stats.relay-ttl-ms:5000}") long relayTtlMs,
+                                  @Value("${app.attendance.stats.max-events:10000}") int maxEvents,
+                                  @Value("${app.websocket.broker.mode:simple}") String brokerMode,
+                                  MeterRegistry meterRegistry) {
+        this.ttlMs = "relay".equalsIgnoreCase(brokerMode) ? Math.min(ttlMs, relayTtlMs) : ttlMs;
+        this.maxEvents = maxEvents;
+
+        Gauge.builder("attendance.stats.cached", cache, Map::size).register(meterRegistry);
+        this.hits = Counter.builder("attendance.stats.hits").register(meterRegistry);
+        this.loads = Counter.builder("attendance.stats.loads").register(meterRegistry);
+    }
+
+    public AttendanceStatsDTO getStats(UUID eventId) {
+        long now = System.currentTimeMillis();
+        Stats stats = cache.get(eventId);
+        if (stats != null && stats.loadedAt() + ttlMs > now) {
+            hits.increment();
+            return stats.toDTO();
+        }
+
+        return reload(now, eventId);
+    }
+
+    /**
+     * Load the counts from the database even if a cached entry is still fresh.
+     */
+    public AttendanceStatsDTO refresh(UUID eventId) {
+        return reload(System.currentTimeMillis(), eventId);
+    }
+
+    /**
+     * One attendance row moved from previous to next; previous is null for a new row.
+     */
+    public void recordStatusChange(UUID eventId, AttendanceStatus previous, AttendanceStatus next) {
+        if (previous == next) {
+            return;
+        }
+        afterCommit(() -> cache.computeIfPresent(eventId, (id, stats) -> stats.move(previous, next)));
+    }
+
+    /**
+     * Forget the cached counts of an event whose roster changed in bulk.
+     */
+    public void invalidate(UUID eventId) {
+        afterCommit(() -> cache.remove(eventId));
+    }
+
+    private AttendanceStatsDTO reload(long now, UUID eventId) {
+        Stats stats = load(now, eventId);
+        if (cache.size() >= maxEvents) {
+            cache.values().removeIf(s -> s.loadedAt() + ttlMs <= now);
+        }
+        if (cache.size() < maxEvents) {
+            cache.put(eventId, stats);
+        }
+        return stats.toDTO();
+    }
+
+    private Stats load(long now, UUID eventId) {
+        loads.increment();
+        int present = 0, absent = 0, pending = 0;
+        for (Object[] row : attendanceRepository.getAttendanceSummaryByEventId(eventId)) {
+            int count = ((Number) row[1]).intValue();
+            switch ((AttendanceStatus) row[0]) {
+                case PRESENT -> present = count;
+                case ABSENT -> absent = count;
+                case PENDING -> pending = count;
+            }
+        }
+        return new Stats(present, absent, pending, now);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Stats(int present, int absent, int pending, long loadedAt) {
+
+        Stats move(AttendanceStatus from, AttendanceStatus to) {
+            int p = present + delta(AttendanceStatus.PRESENT, from, to);
+            int a = absent + delta(AttendanceStatus.ABSENT, from, to);
+            int q = pending + delta(AttendanceStatus.PENDING, from, to);
+            return new Stats(p, a, q, loadedAt);
+        }
+
+        private static int delta(AttendanceStatus bucket, AttendanceStatus from, AttendanceStatus to) {
+            return (bucket == to ? 1 : 0) - (bucket == from ? 1 : 0);
+        }
+
+        AttendanceStatsDTO toDTO() {
+            return new AttendanceStatsDTO(present + absent + pending, present, absent, pending);
+        }
+    }
+}
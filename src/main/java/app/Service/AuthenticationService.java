@@ -78,7 +78,8 @@ public class AuthenticationService {
         }
 
         userRepository.save(user);
-        globalShortCodeService.generateAndReserve(DatabaseType.USER, user.getId());
+        user.setShortCode(globalShortCodeService.generateAndReserve(DatabaseType.USER, user.getId()));
+        userRepository.save(user);
 
         // Send activation code
         Boolean codeSent = sendActivationCode(user);
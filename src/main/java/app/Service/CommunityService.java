@@ -39,6 +39,9 @@ public class CommunityService {
     @Autowired
     private GlobalShortCodeService globalShortCodeService;
 
+    @Autowired
+    private MembershipRoleCache membershipRoleCache;
+
     @Autowired
     private MessageService messageService;
 
@@ -48,6 +51,9 @@ public class CommunityService {
     @Autowired
     private app.Repository.GroupMembershipRepository groupMembershipRepository;
 
+    @Autowired
+    private EntityCountService entityCountService;
+
     /**
      * Create a new community
      */
@@ -65,7 +71,7 @@ public class CommunityService {
         // Save community
         Community savedCommunity = communityRepository.save(community);
 
-        globalShortCodeService.generateAndReserve(DatabaseType.COMMUNITY, savedCommunity.getId());
+        savedCommunity.setShortCode(globalShortCodeService.generateAndReserve(DatabaseType.COMMUNITY, savedCommunity.getId()));
 
         // Automatically add creator as OWNER
         CommunityMembership creatorMembership = new CommunityMembership();
@@ -73,6 +79,8 @@ public class CommunityService {
         creatorMembership.setUser(creator);
         creatorMembership.setRole(MemberRole.OWNER);
         membershipRepository.save(creatorMembership);
+        membershipRoleCache.evictCommunity(creator.getId(), savedCommunity.getId());
+        entityCountService.adjustCommunityMembers(savedCommunity, 1);
 
         // Activity Message
         activityService.record(
@@ -97,9 +105,7 @@ public class CommunityService {
      */
     public List<CommunityDTO> getAllCommunities() {
         List<Community> communities = communityRepository.findAllByOrderByCreatedAtDesc();
-        return communities.stream()
-                .map(communityMapper::toDTO)
-                .collect(Collectors.toList());
+        return communityMapper.toDTOList(communities);
     }
 
     /**
@@ -109,9 +115,7 @@ public class CommunityService {
         User user = userService.getUserByShortCode(userCode);
 
         List<Community> communities = communityRepository.findByCreatedBy(user);
-        return communities.stream()
-                .map(communityMapper::toDTO)
-                .collect(Collectors.toList());
+        return communityMapper.toDTOList(communities);
     }
 
     /**
@@ -121,9 +125,9 @@ public class CommunityService {
         User user = userService.getUserByShortCode(userCode);
 
         List<CommunityMembership> memberships = membershipRepository.findByUser(user);
-        return memberships.stream()
-                .map(membership -> communityMapper.toDTO(membership.getCommunity()))
-                .collect(Collectors.toList());
+        return communityMapper.toDTOList(memberships.stream()
+                .map(CommunityMembership::getCommunity)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -161,6 +165,10 @@ public class CommunityService {
             );
         }
 
+        if (request.getMessageRetentionDays() != null) {
+            community.setMessageRetentionDays(request.getMessageRetentionDays() > 0 ? request.getMessageRetentionDays() : null);
+        }
+
         // Save updated community
         Community updatedCommunity = communityRepository.save(community);
 
@@ -213,6 +221,7 @@ public class CommunityService {
         membership.setStatus(MembershipStatus.PENDING_APPROVAL);
 
         CommunityMembership saved = membershipRepository.save(membership);
+        entityCountService.adjustCommunityMembers(community, 1);
         return communityMapper.toMembershipDTO(saved);
     }
 
@@ -235,6 +244,7 @@ public class CommunityService {
 
         membership.setStatus(MembershipStatus.ACCEPTED);
         CommunityMembership saved = membershipRepository.save(membership);
+        membershipRoleCache.evictCommunity(membership.getUser().getId(), community.getId());
 
         // Activity Message
         activityService.record(
@@ -263,6 +273,7 @@ public class CommunityService {
                 .orElseThrow(() -> new RuntimeException("No pending join request found for this user"));
 
         membershipRepository.delete(membership);
+        entityCountService.adjustCommunityMembers(community, -1);
     }
 
     /**
@@ -291,6 +302,7 @@ public class CommunityService {
         membership.setStatus(MembershipStatus.PENDING_INVITATION);
 
         CommunityMembership saved = membershipRepository.save(membership);
+        entityCountService.adjustCommunityMembers(community, 1);
         return communityMapper.toMembershipDTO(saved);
     }
 
@@ -308,6 +320,7 @@ public class CommunityService {
 
         membership.setStatus(MembershipStatus.ACCEPTED);
         CommunityMembership saved = membershipRepository.save(membership);
+        membershipRoleCache.evictCommunity(membership.getUser().getId(), community.getId());
 
         // Activity Message
         activityService.record(
@@ -326,9 +339,7 @@ public class CommunityService {
         Community community = getCommunityEntityByCode(communityCode);
 
         List<CommunityMembership> memberships = membershipRepository.findByCommunityId(community.getId());
-        return memberships.stream()
-                .map(communityMapper::toMembershipDTO)
-                .collect(Collectors.toList());
+        return communityMapper.toMembershipDTOList(memberships);
     }
 
     /**
@@ -342,8 +353,8 @@ public class CommunityService {
             throw new RuntimeException("Unauthorized to view pending requests");
         }
 
-        return membershipRepository.findByCommunityIdAndStatus(community.getId(), MembershipStatus.PENDING_APPROVAL)
-                .stream().map(communityMapper::toMembershipDTO).collect(Collectors.toList());
+        return communityMapper.toMembershipDTOList(
+                membershipRepository.findByCommunityIdAndStatus(community.getId(), MembershipStatus.PENDING_APPROVAL));
     }
 
     /**
@@ -383,6 +394,7 @@ public class CommunityService {
 
         membership.setRole(newRole);
         CommunityMembership updatedMembership = membershipRepository.save(membership);
+        membershipRoleCache.evictCommunity(memberUser.getId(), community.getId());
 
         // Activity Message
         activityService.record(
@@ -423,7 +435,9 @@ public class CommunityService {
         }
 
         membershipRepository.delete(membership);
-        
+        membershipRoleCache.evictCommunity(memberUser.getId(), community.getId());
+        entityCountService.adjustCommunityMembers(community, -1);
+
         // Cascade removal to all groups in this community
         List<GroupMembership> groupMemberships = groupMembershipRepository.findByUserIdAndCommunityId(memberUser.getId(), community.getId());
         for (GroupMembership gm : groupMemberships) {
@@ -445,9 +459,7 @@ public class CommunityService {
      */
     public List<CommunityDTO> searchCommunities(String searchTerm) {
         List<Community> communities = communityRepository.searchByName(searchTerm);
-        return communities.stream()
-                .map(communityMapper::toDTO)
-                .collect(Collectors.toList());
+        return communityMapper.toDTOList(communities);
     }
 
     // ========== HELPER METHODS ==========
@@ -460,21 +472,19 @@ public class CommunityService {
     }
 
     private Community getCommunityEntityByCode(String communityCode) {
-        UUID communityId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, communityCode);
-        return communityRepository.findById(communityId)
+        // Rows created before short codes were stored inline are resolved through the global table
+        return communityRepository.findByShortCode(communityCode)
+                .or(() -> communityRepository.findById(
+                        globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, communityCode)))
                 .orElseThrow(() -> new RuntimeException("Community not found with code: " + communityCode));
     }
 
     private boolean isOwner(UUID userId, UUID communityId) {
-        return membershipRepository.findByUserIdAndCommunityIdAndStatus(userId, communityId, MembershipStatus.ACCEPTED)
-                .map(m -> m.getRole() == MemberRole.OWNER)
-                .orElse(false);
+        return membershipRoleCache.isCommunityOwner(userId, communityId);
     }
 
     private boolean canManageCommunity(UUID userId, UUID communityId) {
-        return membershipRepository.findByUserIdAndCommunityIdAndStatus(userId, communityId, MembershipStatus.ACCEPTED)
-                .map(m -> m.getRole() == MemberRole.OWNER || m.getRole() == MemberRole.ADMIN)
-                .orElse(false);
+        return membershipRoleCache.isCommunityAdminOrOwner(userId, communityId);
     }
 
     private void handleGroupMembershipRemoval(GroupMembership gm, Community community) {
@@ -486,6 +496,8 @@ public class CommunityService {
             }
         }
         groupMembershipRepository.delete(gm);
+        membershipRoleCache.evictGroup(gm.getUser().getId(), gm.getGroup().getId());
+        entityCountService.adjustGroupMembers(gm.getGroup(), -1);
     }
 
     private void promoteNewGroupOwner(Group group, Community community, User leavingUser) {
@@ -495,6 +507,7 @@ public class CommunityService {
             GroupMembership newOwner = admins.get(0);
             newOwner.setRole(MemberRole.OWNER);
             groupMembershipRepository.save(newOwner);
+            membershipRoleCache.evictGroup(newOwner.getUser().getId(), group.getId());
             return;
         }
 
@@ -504,6 +517,7 @@ public class CommunityService {
             if (!m.getUser().getId().equals(leavingUser.getId())) {
                 m.setRole(MemberRole.OWNER);
                 groupMembershipRepository.save(m);
+                membershipRoleCache.evictGroup(m.getUser().getId(), group.getId());
                 return;
             }
         }
@@ -520,6 +534,7 @@ public class CommunityService {
                         existingGm.setRole(MemberRole.OWNER);
                         existingGm.setStatus(MembershipStatus.ACCEPTED);
                         groupMembershipRepository.save(existingGm);
+                        membershipRoleCache.evictGroup(commOwner.getId(), group.getId());
                     },
                     () -> {
                         GroupMembership newMembership = new GroupMembership();
@@ -528,6 +543,8 @@ public class CommunityService {
                         newMembership.setRole(MemberRole.OWNER);
                         newMembership.setStatus(MembershipStatus.ACCEPTED);
                         groupMembershipRepository.save(newMembership);
+                        membershipRoleCache.evictGroup(commOwner.getId(), group.getId());
+                        entityCountService.adjustGroupMembers(group, 1);
                     }
                 );
         }
@@ -0,0 +1,215 @@
+package app.Service;
+
+import app.Database.Community;
+import app.Database.Event;
+import app.Database.Group;
+import app.Repository.CommunityMembershipRepository;
+import app.Repository.CommunityRepository;
+import app.Repository.EventAttendanceRepository;
+import app.Repository.EventRepository;
+import app.Repository.GroupMembershipRepository;
+import app.Repository.GroupRepository;
+import app.Repository.MessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Child-row counts shown on community, group and event DTOs. The DTOs read the
+ * counter columns on the parent rows, which services bump through the adjust*
+ * methods in the same transaction that inserts or deletes the child row. The
+ * COUNT ... GROUP BY queries remain the source of truth: a scheduled job
+ * compares them against the stored counters and recomputes any that drifted.
+ */
+@Service
+public class EntityCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCountService.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Value("${app.counters.reconcile.enabled:true}")
+    private boolean reconcileEnabled;
+
+    @Value("${app.counters.reconcile.batch-size:500}")
+    private int reconcileBatchSize;
+
+    @Autowired
+    private CommunityRepository communityRepository;
+
+    @Autowired
+    private CommunityMembershipRepository communityMembershipRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupMembershipRepository groupMembershipRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private EventAttendanceRepository attendanceRepository;
+
+    public Map<UUID, Integer> countCommunityMembers(Collection<UUID> communityIds) {
+        return count(communityIds, communityMembershipRepository::countMembersByCommunityIds);
+    }
+
+    public Map<UUID, Integer> countCommunityGroups(Collection<UUID> communityIds) {
+        return count(communityIds, groupRepository::countGroupsByCommunityIds);
+    }
+
+    public Map<UUID, Integer> countGroupMembers(Collection<UUID> groupIds) {
+        return count(groupIds, groupMembershipRepository::countMembersByGroupIds);
+    }
+
+    public Map<UUID, Integer> countGroupEvents(Collection<UUID> groupIds) {
+        return count(groupIds, eventRepository::countEventsByGroupIds);
+    }
+
+    public Map<UUID, Integer> countEventMessages(Collection<UUID> eventIds) {
+        return count(eventIds, messageRepository::countByEventIds);
+    }
+
+    public Map<UUID, Integer> countEventAttendances(Collection<UUID> eventIds) {
+        return count(eventIds, attendanceRepository::countByEventIds);
+    }
+
+    // ===================== Counter maintenance =====================
+    // Each adjust runs an in-place SQL increment, so concurrent writers never
+    // overwrite each other, and mirrors the change on the loaded entity.
+
+    public void adjustCommunityMembers(Community community, int delta) {
+        communityRepository.adjustMemberCount(community.getId(), delta);
+        community.setMemberCount(community.getMemberCount() + delta);
+    }
+
+    public void adjustCommunityGroups(Community community, int delta) {
+        communityRepository.adjustGroupCount(community.getId(), delta);
+        community.setGroupCount(community.getGroupCount() + delta);
+    }
+
+    public void adjustGroupMembers(Group group, int delta) {
+        groupRepository.adjustMemberCount(group.getId(), delta);
+        group.setMemberCount(group.getMemberCount() + delta);
+    }
+
+    public void adjustGroupEvents(Group group, int delta) {
+        groupRepository.adjustEventCount(group.getId(), delta);
+        group.setEventCount(group.getEventCount() + delta);
+    }
+
+    public void adjustEventMessages(Event event, int delta) {
+        eventRepository.adjustMessageCount(event.getId(), delta);
+        event.setMessageCount(event.getMessageCount() + delta);
+    }
+
+    // For writers that only hold the id, such as the message write-behind queue
+    public void adjustEventMessages(UUID eventId, int delta) {
+        eventRepository.adjustMessageCount(eventId, delta);
+    }
+
+    public void adjustEventAttendances(Event event, int delta) {
+        eventRepository.adjustAttendanceCount(event.getId(), delta);
+        event.setAttendanceCount(event.getAttendanceCount() + delta);
+    }
+
+    // For the chunked roster job, which only holds the id
+    public void adjustEventAttendances(UUID eventId, int delta) {
+        eventRepository.adjustAttendanceCount(eventId, delta);
+    }
+
+    // ===================== Reconciliation =====================
+
+    /**
+     * Compare every stored counter against a fresh COUNT and rewrite the rows
+     * that drifted. Also fills in the counters of rows that existed before the
+     * columns were added.
+     */
+    @Scheduled(fixedDelayString = "${app.counters.reconcile.interval-ms:3600000}",
+            initialDelayString = "${app.counters.reconcile.initial-delay-ms:60000}")
+    public void reconcile() {
+        if (!reconcileEnabled) {
+            return;
+        }
+
+        try {
+            int communities = reconcile(communityRepository::findCounters, this::countCommunityMembers,
+                    this::countCommunityGroups, communityRepository::recomputeCounters);
+            int groups = reconcile(groupRepository::findCounters, this::countGroupMembers,
+                    this::countGroupEvents, groupRepository::recomputeCounters);
+            int events = reconcile(eventRepository::findCounters, this::countEventMessages,
+                    this::countEventAttendances, eventRepository::recomputeCounters);
+
+            if (communities + groups + events > 0) {
+                logger.warn("Counter reconciliation fixed {} communities, {} groups, {} events",
+                        communities, groups, events);
+            }
+        } catch (Exception e) {
+            logger.error("Counter reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    // Rows from findCounters are (id, first counter, second counter)
+    private int reconcile(Function<Pageable, List<Object[]>> findCounters,
+                          Function<Collection<UUID>, Map<UUID, Integer>> firstCount,
+                          Function<Collection<UUID>, Map<UUID, Integer>> secondCount,
+                          Function<Collection<UUID>, Integer> recompute) {
+        int fixed = 0;
+        int page = 0;
+        List<Object[]> rows;
+
+        do {
+            rows = findCounters.apply(PageRequest.of(page++, reconcileBatchSize));
+            List<UUID> ids = rows.stream().map(row -> (UUID) row[0]).toList();
+            Map<UUID, Integer> first = firstCount.apply(ids);
+            Map<UUID, Integer> second = secondCount.apply(ids);
+
+            List<UUID> drifted = new ArrayList<>();
+            for (Object[] row : rows) {
+                UUID id = (UUID) row[0];
+                if (((Number) row[1]).intValue() != first.getOrDefault(id, 0)
+                        || ((Number) row[2]).intValue() != second.getOrDefault(id, 0)) {
+                    drifted.add(id);
+                }
+            }
+
+            if (!drifted.isEmpty()) {
+                fixed += recompute.apply(drifted);
+            }
+        } while (rows.size() == reconcileBatchSize);
+
+        return fixed;
+    }
+
+    private Map<UUID, Integer> count(Collection<UUID> ids, Function<Collection<UUID>, List<Object[]>> query) {
+        Map<UUID, Integer> result = new HashMap<>();
+        List<UUID> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+
+        for (int i = 0; i < distinct.size(); i += BATCH_SIZE) {
+            for (Object[] row : query.apply(distinct.subList(i, Math.min(i + BATCH_SIZE, distinct.size())))) {
+                result.put((UUID) row[0], ((Number) row[1]).intValue());
+            }
+        }
+
+        return result;
+    }
+}
@@ -5,19 +5,37 @@ import app.Database.*;
 import app.DTO.Event.EventMapper;
 import app.Repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class EventService {
 
+    private static final String UPDATE_MARK =
+            "UPDATE event_attendance SET status = ?, marked_by = ?, marked_at = ? WHERE id = ?";
+
+    private static final String INSERT_MARK =
+            "INSERT INTO event_attendance (id, event_id, user_id, group_id, status, marked_by, marked_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired
     private EventRepository eventRepository;
 
@@ -48,6 +66,27 @@ public class EventService {
     @Autowired
     private GlobalShortCodeService globalShortCodeService;
 
+    @Autowired
+    private MembershipRoleCache membershipRoleCache;
+
+    @Autowired
+    private EntityCountService entityCountService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private AttendanceRosterService attendanceRosterService;
+
+    @Autowired
+    private AttendanceStatsService attendanceStatsService;
+
+    @Autowired
+    private AttendanceLiveService attendanceLiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     /**
      * Create a new event
      */
@@ -66,9 +105,7 @@ public class EventService {
 
         // Set community if provided
         if (request.getCommunityCode() != null) {
-            UUID communityId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, request.getCommunityCode());
-            Community community = communityRepository.findById(communityId)
-                    .orElseThrow(() -> new RuntimeException("Community not found"));
+            Community community = getCommunityEntityByCode(request.getCommunityCode());
             
             // Authorization for community-wide events (Notices)
             if (request.getGroupCode() == null) {
@@ -82,12 +119,10 @@ public class EventService {
 
         // Set group if provided
         if (request.getGroupCode() != null) {
-            UUID groupId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.GROUP, request.getGroupCode());
-            Group group = groupRepository.findById(groupId)
-                    .orElseThrow(() -> new RuntimeException("Group not found"));
+            Group group = getGroupEntityByCode(request.getGroupCode());
 
             // Verify creator is a member of the group
-            if (!groupMembershipRepository.existsByUserIdAndGroupIdAndStatus(creator.getId(), group.getId(), MembershipStatus.ACCEPTED)) {
+            if (!membershipRoleCache.isGroupMember(creator.getId(), group.getId())) {
                 throw new RuntimeException("You must be an active member of the group to create events");
             }
 
@@ -102,7 +137,10 @@ public class EventService {
         }
 
         Event savedEvent = eventRepository.save(event);
-        globalShortCodeService.generateAndReserve(DatabaseType.EVENTS, savedEvent.getId());
+        savedEvent.setShortCode(globalShortCodeService.generateAndReserve(DatabaseType.EVENTS, savedEvent.getId()));
+        if (savedEvent.getGroup() != null) {
+            entityCountService.adjustGroupEvents(savedEvent.getGroup(), 1);
+        }
 
         // Initialize attendance automatically if enabled
         if (savedEvent.getAttendanceEnabled()) {
@@ -126,9 +164,7 @@ public class EventService {
     public List<EventDTO> getEventsByCommunity(String communityCode) {
         UUID communityId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, communityCode);
         List<Event> events = eventRepository.findByCommunityIdOrderByDateDesc(communityId);
-        return events.stream()
-                .map(eventMapper::toDTO)
-                .collect(Collectors.toList());
+        return eventMapper.toDTOList(events);
     }
 
     /**
@@ -137,9 +173,7 @@ public class EventService {
     public List<EventDTO> getEventsByGroup(String groupCode) {
         UUID groupId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.GROUP, groupCode);
         List<Event> events = eventRepository.findByGroupIdOrderByDateDesc(groupId);
-        return events.stream()
-                .map(eventMapper::toDTO)
-                .collect(Collectors.toList());
+        return eventMapper.toDTOList(events);
     }
 
     /**
@@ -148,9 +182,7 @@ public class EventService {
     public List<EventDTO> getUpcomingEventsByCommunity(String communityCode) {
         UUID communityId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, communityCode);
         List<Event> events = eventRepository.findUpcomingEventsByCommunityId(communityId, LocalDate.now());
-        return events.stream()
-                .map(eventMapper::toDTO)
-                .collect(Collectors.toList());
+        return eventMapper.toDTOList(events);
     }
 
     /**
@@ -159,9 +191,7 @@ public class EventService {
     public List<EventDTO> getUpcomingEventsByGroup(String groupCode) {
         UUID groupId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.GROUP, groupCode);
         List<Event> events = eventRepository.findUpcomingEventsByGroupId(groupId, LocalDate.now());
-        return events.stream()
-                .map(eventMapper::toDTO)
-                .collect(Collectors.toList());
+        return eventMapper.toDTOList(events);
     }
 
     /**
@@ -182,6 +212,9 @@ public class EventService {
         if (request.getEventDate() != null) event.setEventDate(request.getEventDate());
         if (request.getEventTime() != null) event.setEventTime(request.getEventTime());
         if (request.getLocation() != null) event.setLocation(request.getLocation());
+        if (request.getMessageRetentionDays() != null) {
+            event.setMessageRetentionDays(request.getMessageRetentionDays() > 0 ? request.getMessageRetentionDays() : null);
+        }
 
         Event updatedEvent = eventRepository.save(event);
         return eventMapper.toDTO(updatedEvent);
@@ -203,7 +236,13 @@ public class EventService {
         // Community Admin can delete group events where they are admin
         // Creator can delete
         if (isCommOwner || isCreator || (isCommAdmin && canManageEvent(user.getId(), event.getId()))) {
+            // Bulk-delete the chat first so the cascade finds no messages to load
+            messageService.deleteMessagesByEventId(event.getId());
             eventRepository.delete(event);
+            attendanceStatsService.invalidate(event.getId());
+            if (event.getGroup() != null) {
+                entityCountService.adjustGroupEvents(event.getGroup(), -1);
+            }
         } else {
             throw new RuntimeException("Unauthorized to delete this event");
         }
@@ -224,7 +263,7 @@ public class EventService {
         event.setAttendanceEnabled(enabled);
         Event updatedEvent = eventRepository.save(event);
 
-        if (enabled && event.getAttendances().isEmpty()) {
+        if (enabled && event.getAttendanceCount() == 0) {
             initializeAttendanceForEvent(event);
         }
 
@@ -255,9 +294,7 @@ public class EventService {
             if (request.getGroupCode() == null || request.getGroupCode().isEmpty()) {
                 throw new RuntimeException("Group code is required for group-based attendance");
             }
-            UUID groupId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.GROUP, request.getGroupCode());
-            group = groupRepository.findById(groupId)
-                    .orElseThrow(() -> new RuntimeException("Group not found"));
+            group = getGroupEntityByCode(request.getGroupCode());
         }
 
         final Group finalGroup = group;
@@ -270,22 +307,145 @@ public class EventService {
                     newAttendance.setGroup(finalGroup);
                     return newAttendance;
                 });
+        boolean isNew = attendance.getId() == null;
+        AttendanceStatus previous = isNew ? null : attendance.getStatus();
 
         attendance.setStatus(request.getStatus());
         attendance.setMarkedBy(marker);
         attendance.setMarkedAt(LocalDateTime.now());
 
         EventAttendance savedAttendance = attendanceRepository.save(attendance);
+        if (isNew) {
+            entityCountService.adjustEventAttendances(event, 1);
+        }
+        attendanceStatsService.recordStatusChange(event.getId(), previous, savedAttendance.getStatus());
+        attendanceLiveService.recordChanges(event.getId(), eventCode, List.of(new AttendanceChangeDTO(
+                request.getUserCode(), finalGroup != null ? request.getGroupCode() : null, previous, savedAttendance.getStatus())));
         return eventMapper.toAttendanceDTO(savedAttendance);
     }
 
+    /**
+     * Mark attendance for many users at once. Permission is checked once, all
+     * codes are resolved with a few IN queries and the rows are written with
+     * one JDBC batch of updates and one of inserts. Entries that can't be
+     * resolved are reported as failed; the rest are still written.
+     */
+    @Transactional
+    public BulkAttendanceResultDTO bulkMarkAttendance(String eventCode, String markerCode, BulkMarkAttendanceRequest request) {
+        Event event = getEventEntityByCode(eventCode);
+        User marker = userService.getUserByShortCode(markerCode);
+
+        if (!event.getAttendanceEnabled()) {
+            throw new RuntimeException("Attendance is not enabled");
+        }
+        if (!canManageEvent(marker.getId(), event.getId())) {
+            throw new RuntimeException("Only admins can mark attendance");
+        }
+
+        List<MarkAttendanceRequest> entries = request.getEntries();
+        Set<String> codes = new HashSet<>();
+        for (MarkAttendanceRequest entry : entries) {
+            codes.add(entry.getUserCode());
+            if (entry.getGroupCode() != null) codes.add(entry.getGroupCode());
+        }
+        Map<String, UUID> ids = globalShortCodeService.resolveAll(codes);
+
+        // A code of the wrong type resolves to an id that isn't in these sets
+        Set<UUID> userIds = new HashSet<>(userRepository.findExistingIds(ids.values()));
+        Set<UUID> groupIds = new HashSet<>(groupRepository.findIdsInCommunity(event.getCommunity().getId(), ids.values()));
+
+        // (userId, groupId) -> (attendance id, status) for rows that already exist
+        Map<List<UUID>, Object[]> existing = new HashMap<>();
+        for (Object[] row : attendanceRepository.findMarksByEventIdAndUserIds(event.getId(), userIds)) {
+            existing.put(Arrays.asList((UUID) row[1], (UUID) row[2]), new Object[]{row[0], row[3]});
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<AttendanceMarkResultDTO> results = new ArrayList<>();
+        List<AttendanceChangeDTO> changes = new ArrayList<>();
+        Set<List<UUID>> seen = new HashSet<>();
+
+        for (MarkAttendanceRequest entry : entries) {
+            AttendanceMarkResultDTO result = new AttendanceMarkResultDTO(entry);
+            results.add(result);
+
+            UUID userId = ids.get(entry.getUserCode());
+            UUID groupId = null;
+            if (userId == null || !userIds.contains(userId)) {
+                result.setError("User not found");
+                continue;
+            }
+            if (entry.getType() == DatabaseType.GROUP) {
+                if (entry.getGroupCode() == null || entry.getGroupCode().isEmpty()) {
+                    result.setError("Group code is required for group-based attendance");
+                    continue;
+                }
+                groupId = ids.get(entry.getGroupCode());
+                if (groupId == null || !groupIds.contains(groupId)) {
+                    result.setError("Group not found");
+                    continue;
+                }
+            }
+
+            List<UUID> key = Arrays.asList(userId, groupId);
+            if (!seen.add(key)) {
+                result.setError("Duplicate entry");
+                continue;
+            }
+
+            String status = entry.getStatus().name();
+            Object[] row = existing.get(key);
+            if (row != null) {
+                updates.add(new Object[]{status, marker.getId(), now, row[0]});
+            } else {
+                inserts.add(new Object[]{UUID.randomUUID(), event.getId(), userId, groupId, status, marker.getId(), now, now});
+                result.setCreated(true);
+            }
+            changes.add(new AttendanceChangeDTO(entry.getUserCode(), groupId != null ? entry.getGroupCode() : null,
+                    row != null ? (AttendanceStatus) row[1] : null, entry.getStatus()));
+            result.setSuccess(true);
+        }
+
+        // Entities loaded above must not overwrite the rows written below
+        attendanceRepository.flush();
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_MARK, updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MARK, inserts);
+            entityCountService.adjustEventAttendances(event, inserts.size());
+        }
+        if (!updates.isEmpty() || !inserts.isEmpty()) {
+            attendanceStatsService.invalidate(event.getId());
+        }
+        attendanceLiveService.recordChanges(event.getId(), eventCode, changes);
+
+        return new BulkAttendanceResultDTO(results);
+    }
+
     /**
      * Get event attendance
      */
-    public List<EventAttendanceDTO> getEventAttendance(String eventCode) {
+    public Page<AttendanceEntryDTO> getEventAttendance(String eventCode, AttendanceStatus status, int page, int size) {
+        Event event = getEventEntityByCode(eventCode);
+        return toEntryPage(attendanceRepository.findEntriesByEventId(event.getId(), status, PageRequest.of(page, size)));
+    }
+
+    /**
+     * Get event attendance of one group, filtered and paged in the database
+     */
+    public Page<AttendanceEntryDTO> getEventAttendanceByGroup(String eventCode, String groupCode,
+                                                              AttendanceStatus status, int page, int size) {
         Event event = getEventEntityByCode(eventCode);
-        return attendanceRepository.findByEvent(event).stream()
-                .map(eventMapper::toAttendanceDTO).collect(Collectors.toList());
+        Group group = getGroupEntityByCode(groupCode);
+        return toEntryPage(attendanceRepository.findEntriesByEventIdAndGroupId(
+                event.getId(), group.getId(), status, PageRequest.of(page, size)));
+    }
+
+    private Page<AttendanceEntryDTO> toEntryPage(Page<Object[]> rows) {
+        return new PageImpl<>(eventMapper.toAttendanceEntryDTOList(rows.getContent()), rows.getPageable(), rows.getTotalElements());
     }
 
     /**
@@ -293,11 +453,7 @@ public class EventService {
      */
     public AttendanceStatsDTO getAttendanceStats(String eventCode) {
         Event event = getEventEntityByCode(eventCode);
-        int total = attendanceRepository.findByEvent(event).size();
-        int present = attendanceRepository.countByEventAndStatus(event, AttendanceStatus.PRESENT);
-        int absent = attendanceRepository.countByEventAndStatus(event, AttendanceStatus.ABSENT);
-        int pending = attendanceRepository.countByEventAndStatus(event, AttendanceStatus.PENDING);
-        return new AttendanceStatsDTO(total, present, absent, pending);
+        return attendanceStatsService.getStats(event.getId());
     }
 
     /**
@@ -305,36 +461,65 @@ public class EventService {
      */
     @Transactional
     public void initializeAttendanceForEvent(Event event) {
-        if (event.getGroup() != null) {
-            // Group event
-            List<GroupMembership> memberships = groupMembershipRepository.findByGroupIdAndStatus(event.getGroup().getId(), MembershipStatus.ACCEPTED);
-            for (GroupMembership membership : memberships) {
-                createAttendanceIfNotExist(event, membership.getUser(), event.getGroup());
-            }
-        } else {
-            // Community-wide event (Notice)
-            List<CommunityMembership> memberships = communityMembershipRepository.findByCommunityIdAndStatus(event.getCommunity().getId(), MembershipStatus.ACCEPTED);
-            for (CommunityMembership membership : memberships) {
-                createAttendanceIfNotExist(event, membership.getUser(), null);
-            }
+        if (attendanceRosterService.isInProgress(event.getId())) {
+            return;
         }
-    }
 
-    private void createAttendanceIfNotExist(Event event, User user, Group group) {
-        if (!attendanceRepository.existsByEventIdAndUserIdAndGroupId(event.getId(), user.getId(), group != null ? group.getId() : null)) {
-            EventAttendance attendance = new EventAttendance();
-            attendance.setEvent(event);
-            attendance.setUser(user);
-            attendance.setGroup(group);
-            attendance.setStatus(AttendanceStatus.PENDING);
-            attendanceRepository.save(attendance);
+        // The roster is inserted with plain SQL, so the event row has to be written first
+        eventRepository.flush();
+
+        if (!attendanceRosterService.isLarge(event)) {
+            attendanceRosterService.initialize(event);
+            return;
+        }
+
+        // Large rosters are filled in the background once the event is committed
+        attendanceRosterService.markQueued(event);
+        UUID eventId = event.getId();
+        UUID groupId = event.getGroup() != null ? event.getGroup().getId() : null;
+        UUID communityId = event.getCommunity().getId();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            attendanceRosterService.initializeInChunks(eventId, groupId, communityId);
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                attendanceRosterService.initializeInChunks(eventId, groupId, communityId);
+            }
+        });
+    }
+
+    /**
+     * Get roster initialization progress, or null if none was started recently on this node
+     */
+    public RosterProgressDTO getRosterProgress(String eventCode) {
+        Event event = getEventEntityByCode(eventCode);
+        return attendanceRosterService.getProgress(event.getId());
     }
 
     // Helper methods
+    // Rows created before short codes were stored inline are resolved through the global table
     private Event getEventEntityByCode(String eventCode) {
-        UUID eventId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.EVENTS, eventCode);
-        return eventRepository.findById(eventId).orElseThrow(() -> new RuntimeException("Event not found"));
+        return eventRepository.findByShortCode(eventCode)
+                .or(() -> eventRepository.findById(
+                        globalShortCodeService.getUUIDfromShortCode(DatabaseType.EVENTS, eventCode)))
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+    }
+
+    private Community getCommunityEntityByCode(String communityCode) {
+        return communityRepository.findByShortCode(communityCode)
+                .or(() -> communityRepository.findById(
+                        globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, communityCode)))
+                .orElseThrow(() -> new RuntimeException("Community not found"));
+    }
+
+    private Group getGroupEntityByCode(String groupCode) {
+        return groupRepository.findByShortCode(groupCode)
+                .or(() -> groupRepository.findById(
+                        globalShortCodeService.getUUIDfromShortCode(DatabaseType.GROUP, groupCode)))
+                .orElseThrow(() -> new RuntimeException("Group not found"));
     }
 
     private boolean canManageEvent(UUID userId, UUID eventId) {
@@ -348,9 +533,7 @@ public class EventService {
 
         if (event.getGroup() != null) {
             // Group Admin/Owner can manage
-            return groupMembershipRepository.findByUserIdAndGroupIdAndStatus(userId, event.getGroup().getId(), MembershipStatus.ACCEPTED)
-                    .map(m -> m.getRole() == MemberRole.ADMIN || m.getRole() == MemberRole.OWNER)
-                    .orElse(false);
+            return membershipRoleCache.isGroupAdminOrOwner(userId, event.getGroup().getId());
         } else {
             // Community Admin can manage community events
             return isCommunityAdmin(userId, event.getCommunity().getId());
@@ -358,25 +541,14 @@ public class EventService {
     }
 
     private boolean isCommunityOwner(UUID userId, UUID communityId) {
-        return communityMembershipRepository.findByUserIdAndCommunityIdAndStatus(userId, communityId, MembershipStatus.ACCEPTED)
-                .map(m -> m.getRole() == MemberRole.OWNER).orElse(false);
+        return membershipRoleCache.isCommunityOwner(userId, communityId);
     }
 
     private boolean isCommunityAdmin(UUID userId, UUID communityId) {
-        return communityMembershipRepository.findByUserIdAndCommunityIdAndStatus(userId, communityId, MembershipStatus.ACCEPTED)
-                .map(m -> m.getRole() == MemberRole.ADMIN).orElse(false);
+        return membershipRoleCache.isCommunityAdmin(userId, communityId);
     }
 
     private boolean isCommunityAdminOrOwner(UUID userId, UUID communityId) {
-        return communityMembershipRepository.findByUserIdAndCommunityIdAndStatus(userId, communityId, MembershipStatus.ACCEPTED)
-                .map(m -> m.getRole() == MemberRole.OWNER || m.getRole() == MemberRole.ADMIN).orElse(false);
-    }
-
-    public List<EventAttendanceDTO> getEventAttendanceByGroup(String eventCode, String groupCode) {
-        List<EventAttendanceDTO> eventAttendanceDTOS = getEventAttendance(eventCode);
-
-        return eventAttendanceDTOS.stream()
-                .filter(dto -> dto.getGroupCode() != null && dto.getGroupCode().equals(groupCode))
-                .toList(); // or collect(Collectors.toList()) if using Java < 16
+        return membershipRoleCache.isCommunityAdminOrOwner(userId, communityId);
     }
 }
@@ -4,29 +4,78 @@ import app.Database.DatabaseType;
 import app.Database.GlobalShortCode;
 import app.Repository.GlobalShortCodeRepository;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class GlobalShortCodeService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GlobalShortCodeService.class);
+
     private final String CHAR_POOL = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
     private final int CODE_LENGTH = 10;
 
+    // Keeps IN (...) lists well below driver bind-parameter limits
+    private static final int BATCH_LOOKUP_SIZE = 1000;
+
     private SecureRandom random = new SecureRandom();
 
     @Autowired
     private GlobalShortCodeRepository globalShortCodeRepository;
 
+    @Autowired
+    private ShortCodeCache shortCodeCache;
+
+    @Autowired
+    private ShortCodePool shortCodePool;
+
+    @Value("${app.short-code.cache.warm-up-size:5000}")
+    private int warmUpSize;
+
+    // Serializes the startup load and the scheduled refill; refills wait until the load has run,
+    // otherwise the load would re-read rows the refill just reserved and pool them twice
+    private final Object poolLock = new Object();
+    private volatile boolean poolLoaded;
+
     // 🔹 1. Generate & reserve globally unique code
     @Transactional
     public String generateAndReserve(DatabaseType type, UUID referenceId) {
 
+        // Fast path: bind a pre-reserved code, no generation or collision retry
+        String pooled;
+        while ((pooled = shortCodePool.poll(type)) != null) {
+            if (globalShortCodeRepository.claim(pooled, referenceId) == 1) {
+                cacheAfterCommit(pooled, type, referenceId);
+                returnToPoolOnRollback(pooled, type);
+                return pooled;
+            }
+        }
+
+        // Pool drained or disabled: generate inline
         while (true) {
             String code = generateCode();
 
@@ -38,6 +87,7 @@ public class GlobalShortCodeService {
                 entity.setCreatedAt(LocalDateTime.now());
 
                 globalShortCodeRepository.save(entity);
+                cacheAfterCommit(code, type, referenceId);
 
                 return code;
 
@@ -47,27 +97,264 @@ public class GlobalShortCodeService {
         }
     }
 
+    @Transactional
     public void deleteCode(String code) {
         globalShortCodeRepository.deleteByCode(code);
+        // Invalidating before commit would let a concurrent lookup re-cache the old row
+        afterCommit(() -> shortCodeCache.invalidate(code));
     }
 
     public String getShortCode(DatabaseType type, UUID referenceId) {
+        String cached = shortCodeCache.getCode(type, referenceId);
+        if (cached != null) {
+            return cached;
+        }
+
         GlobalShortCode globalShortCode = globalShortCodeRepository.findByTypeAndReferenceId(type, referenceId).get();
+        shortCodeCache.put(globalShortCode);
 
         return globalShortCode.getCode();
     }
 
     public UUID getUUIDfromShortCode(DatabaseType type, String code) {
-        GlobalShortCode globalShortCode = globalShortCodeRepository.findByCodeAndType(code, type).get();
+        ShortCodeCache.Entry cached = shortCodeCache.getByCode(code);
+        if (cached != null) {
+            if (cached.type() != type) {
+                throw new NoSuchElementException("No value present");
+            }
+            return cached.referenceId();
+        }
+
+        GlobalShortCode globalShortCode = globalShortCodeRepository.findByCodeAndType(code, type)
+                .filter(GlobalShortCode::isReserved)
+                .get();
+        shortCodeCache.put(globalShortCode);
         return globalShortCode.getReferenceId();
     }
 
     public UUID getUUIDfromShortCode(String code) {
+        ShortCodeCache.Entry cached = shortCodeCache.getByCode(code);
+        if (cached != null) {
+            return cached.referenceId();
+        }
+
         GlobalShortCode globalShortCode = globalShortCodeRepository.findByCode(code)
+                .filter(GlobalShortCode::isReserved)
                 .orElseThrow(() -> new RuntimeException("Code not found: " + code));
+        shortCodeCache.put(globalShortCode);
         return globalShortCode.getReferenceId();
     }
 
+    /**
+     * Resolve the codes of many entities of one type with a single IN query
+     * for whatever isn't cached. Ids without a reserved code are left out of the result.
+     */
+    public Map<UUID, String> getShortCodes(DatabaseType type, Collection<UUID> referenceIds) {
+        Map<UUID, String> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+
+        for (UUID referenceId : new LinkedHashSet<>(referenceIds)) {
+            if (referenceId == null) continue;
+            String cached = shortCodeCache.getCode(type, referenceId);
+            if (cached != null) {
+                result.put(referenceId, cached);
+            } else {
+                missing.add(referenceId);
+            }
+        }
+
+        for (List<UUID> chunk : chunks(missing)) {
+            for (GlobalShortCode globalShortCode : globalShortCodeRepository.findByTypeAndReferenceIdIn(type, chunk)) {
+                shortCodeCache.put(globalShortCode);
+                result.put(globalShortCode.getReferenceId(), globalShortCode.getCode());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolve many codes (of any type) to their reference ids with a single IN query
+     * for whatever isn't cached. Unknown codes are left out of the result.
+     */
+    public Map<String, UUID> resolveAll(Collection<String> codes) {
+        Map<String, UUID> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String code : new LinkedHashSet<>(codes)) {
+            if (code == null) continue;
+            ShortCodeCache.Entry cached = shortCodeCache.getByCode(code);
+            if (cached != null) {
+                result.put(code, cached.referenceId());
+            } else {
+                missing.add(code);
+            }
+        }
+
+        for (List<String> chunk : chunks(missing)) {
+            for (GlobalShortCode globalShortCode : globalShortCodeRepository.findByCodeIn(chunk)) {
+                if (!globalShortCode.isReserved()) continue;
+                shortCodeCache.put(globalShortCode);
+                result.put(globalShortCode.getCode(), globalShortCode.getReferenceId());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Look the code up in a map produced by {@link #getShortCodes}, falling back
+     * to a single lookup for anything that wasn't prefetched.
+     */
+    public String getShortCode(DatabaseType type, UUID referenceId, Map<UUID, String> prefetched) {
+        String code = prefetched.get(referenceId);
+        return code != null ? code : getShortCode(type, referenceId);
+    }
+
+    /**
+     * Same as above, but prefer the code already stored on the entity. Only rows
+     * the backfill hasn't reached yet go through the prefetched map.
+     */
+    public String getShortCode(DatabaseType type, UUID referenceId, String storedCode, Map<UUID, String> prefetched) {
+        return storedCode != null ? storedCode : getShortCode(type, referenceId, prefetched);
+    }
+
+    /**
+     * Pre-load the most recently reserved codes so the first requests after a
+     * restart don't all miss the cache.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpCache() {
+        int size = Math.min(warmUpSize, shortCodeCache.getMaxSize());
+        if (size <= 0) {
+            return;
+        }
+
+        // Unbound pool reservations are newest but can't be cached, so skip them
+        List<GlobalShortCode> recent = globalShortCodeRepository
+                .findByReferenceIdIsNotNull(PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+        // Insert oldest first so the newest codes end up most recently used
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            shortCodeCache.put(recent.get(i));
+        }
+
+        logger.info("Short code cache warmed with {} entries", recent.size());
+    }
+
+    /**
+     * Seed the pool with codes reserved by a previous run that were never handed out.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPool() {
+        if (!shortCodePool.isEnabled()) {
+            return;
+        }
+
+        synchronized (poolLock) {
+            for (DatabaseType type : DatabaseType.values()) {
+                List<String> unclaimed = globalShortCodeRepository
+                        .findByTypeAndReferenceIdIsNull(type, PageRequest.of(0, shortCodePool.getTargetSize()))
+                        .stream()
+                        .map(GlobalShortCode::getCode)
+                        .toList();
+                shortCodePool.addAll(type, unclaimed);
+            }
+            poolLoaded = true;
+        }
+        refillPool();
+    }
+
+    /**
+     * Top up any pool that fell below its low-water mark. Runs off the request
+     * path, so a collision here only costs a retry on the next tick.
+     */
+    @Scheduled(fixedDelayString = "${app.short-code.pool.refill-interval-ms:1000}")
+    public void refillPool() {
+        if (!poolLoaded) {
+            return;
+        }
+
+        synchronized (poolLock) {
+            for (DatabaseType type : DatabaseType.values()) {
+                if (!shortCodePool.needsRefill(type)) {
+                    continue;
+                }
+
+                int count = shortCodePool.deficit(type);
+                try {
+                    List<String> reserved = shortCodePool.getRefillTimer().recordCallable(() -> reservePoolCodes(type, count));
+                    shortCodePool.addAll(type, reserved);
+                } catch (Exception e) {
+                    logger.warn("Short code pool refill for {} failed: {}", type, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Insert unbound rows in one saveAll; the repository commits them in its own transaction
+    private List<String> reservePoolCodes(DatabaseType type, int count) {
+        Set<String> codes = new HashSet<>();
+        while (codes.size() < count) {
+            codes.add(generateCode());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<GlobalShortCode> rows = codes.stream()
+                .map(code -> {
+                    GlobalShortCode row = new GlobalShortCode(code, type, null);
+                    row.setCreatedAt(now);
+                    return row;
+                })
+                .toList();
+        globalShortCodeRepository.saveAll(rows);
+
+        return List.copyOf(codes);
+    }
+
+    // Only publish a new code once the reserving transaction has committed,
+    // otherwise a rollback would leave a mapping to an entity that never existed
+    private void cacheAfterCommit(String code, DatabaseType type, UUID referenceId) {
+        afterCommit(() -> shortCodeCache.put(code, type, referenceId));
+    }
+
+    // The claim is undone by a rollback, so the row is unbound again and can be handed out later
+    private void returnToPoolOnRollback(String code, DatabaseType type) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    shortCodePool.addAll(type, List.of(code));
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += BATCH_LOOKUP_SIZE) {
+            chunks.add(items.subList(i, Math.min(i + BATCH_LOOKUP_SIZE, items.size())));
+        }
+        return chunks;
+    }
+
     private String generateCode() {
         StringBuilder sb = new StringBuilder(CODE_LENGTH);
 
@@ -78,4 +365,4 @@ public class GlobalShortCodeService {
 
         return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -26,9 +26,6 @@ public class GroupService {
     @Autowired
     private CommunityRepository communityRepository;
 
-    @Autowired
-    private CommunityMembershipRepository communityMembershipRepository;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -41,12 +38,18 @@ public class GroupService {
     @Autowired
     private GlobalShortCodeService globalShortCodeService;
 
+    @Autowired
+    private MembershipRoleCache membershipRoleCache;
+
     @Autowired
     private MessageService messageService;
 
     @Autowired
     private ActivityService activityService;
 
+    @Autowired
+    private EntityCountService entityCountService;
+
     /**
      * Create a new group
      */
@@ -56,12 +59,13 @@ public class GroupService {
         User creator = userService.getUserByShortCode(userCode);
 
         // Find the community
-        UUID communityId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, request.getCommunityCode());
-        Community community = communityRepository.findById(communityId)
+        Community community = communityRepository.findByShortCode(request.getCommunityCode())
+                .or(() -> communityRepository.findById(
+                        globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, request.getCommunityCode())))
                 .orElseThrow(() -> new RuntimeException("Community not found with code: " + request.getCommunityCode()));
 
         // Check if user is a member of the community (ACCEPTED)
-        if (!communityMembershipRepository.existsByUserIdAndCommunityIdAndStatus(creator.getId(), community.getId(), MembershipStatus.ACCEPTED)) {
+        if (!membershipRoleCache.isCommunityMember(creator.getId(), community.getId())) {
             throw new RuntimeException("You must be an active member of the community to create a group");
         }
 
@@ -79,9 +83,10 @@ public class GroupService {
 
         // Save group
         Group savedGroup = groupRepository.save(group);
+        entityCountService.adjustCommunityGroups(community, 1);
 
         // Generate short code
-        globalShortCodeService.generateAndReserve(DatabaseType.GROUP, savedGroup.getId());
+        savedGroup.setShortCode(globalShortCodeService.generateAndReserve(DatabaseType.GROUP, savedGroup.getId()));
 
         // Automatically add creator as OWNER
         GroupMembership creatorMembership = new GroupMembership();
@@ -90,6 +95,8 @@ public class GroupService {
         creatorMembership.setRole(MemberRole.OWNER);
         creatorMembership.setStatus(MembershipStatus.ACCEPTED);
         membershipRepository.save(creatorMembership);
+        membershipRoleCache.evictGroup(creatorMembership.getUser().getId(), creatorMembership.getGroup().getId());
+        entityCountService.adjustGroupMembers(savedGroup, 1);
 
         // Activity Message
         activityService.record(
@@ -126,9 +133,7 @@ public class GroupService {
         }
 
         List<Group> groups = groupRepository.findByCommunityIdOrderByCreatedAtDesc(communityId);
-        return groups.stream()
-                .map(groupMapper::toDTO)
-                .collect(Collectors.toList());
+        return groupMapper.toDTOList(groups);
     }
 
     /**
@@ -138,9 +143,7 @@ public class GroupService {
         User user = userService.getUserByShortCode(userCode);
 
         List<Group> groups = groupRepository.findByCreatedBy(user);
-        return groups.stream()
-                .map(groupMapper::toDTO)
-                .collect(Collectors.toList());
+        return groupMapper.toDTOList(groups);
     }
 
     /**
@@ -150,9 +153,9 @@ public class GroupService {
         User user = userService.getUserByShortCode(userCode);
 
         List<GroupMembership> memberships = membershipRepository.findByUserIdAndStatus(user.getId(), MembershipStatus.ACCEPTED);
-        return memberships.stream()
-                .map(membership -> groupMapper.toDTO(membership.getGroup()))
-                .collect(Collectors.toList());
+        return groupMapper.toDTOList(memberships.stream()
+                .map(GroupMembership::getGroup)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -216,6 +219,7 @@ public class GroupService {
                     "Group '" + group.getName() + "' was deleted"
             );
             groupRepository.delete(group);
+            entityCountService.adjustCommunityGroups(group.getCommunity(), -1);
         } else {
             throw new RuntimeException("You don't have permission to delete this group");
         }
@@ -230,7 +234,7 @@ public class GroupService {
         User user = userService.getUserByShortCode(userCode);
 
         // Pre-requisite: Must be in community
-        if (!communityMembershipRepository.existsByUserIdAndCommunityIdAndStatus(user.getId(), group.getCommunity().getId(), MembershipStatus.ACCEPTED)) {
+        if (!membershipRoleCache.isCommunityMember(user.getId(), group.getCommunity().getId())) {
             throw new RuntimeException("You must be a member of the community to join this group");
         }
 
@@ -246,6 +250,7 @@ public class GroupService {
         membership.setStatus(MembershipStatus.PENDING_APPROVAL);
 
         GroupMembership saved = membershipRepository.save(membership);
+        entityCountService.adjustGroupMembers(group, 1);
         return groupMapper.toMembershipDTO(saved);
     }
 
@@ -274,6 +279,7 @@ public class GroupService {
         }
 
         GroupMembership saved = membershipRepository.save(membership);
+        membershipRoleCache.evictGroup(membership.getUser().getId(), membership.getGroup().getId());
         
         // Activity Message
         activityService.record(
@@ -302,6 +308,7 @@ public class GroupService {
                 .orElseThrow(() -> new RuntimeException("No pending join request found"));
 
         membershipRepository.delete(membership);
+        entityCountService.adjustGroupMembers(group, -1);
     }
 
     /**
@@ -319,7 +326,7 @@ public class GroupService {
         User userToInvite = userService.getUserByShortCode(request.getUserCode());
 
         // Pre-requisite: Must be in community
-        if (!communityMembershipRepository.existsByUserIdAndCommunityIdAndStatus(userToInvite.getId(), group.getCommunity().getId(), MembershipStatus.ACCEPTED)) {
+        if (!membershipRoleCache.isCommunityMember(userToInvite.getId(), group.getCommunity().getId())) {
             throw new RuntimeException("User must be a member of the community first");
         }
 
@@ -335,6 +342,7 @@ public class GroupService {
         membership.setStatus(MembershipStatus.PENDING_INVITATION);
 
         GroupMembership saved = membershipRepository.save(membership);
+        entityCountService.adjustGroupMembers(group, 1);
         return groupMapper.toMembershipDTO(saved);
     }
 
@@ -358,6 +366,7 @@ public class GroupService {
         }
 
         GroupMembership saved = membershipRepository.save(membership);
+        membershipRoleCache.evictGroup(membership.getUser().getId(), membership.getGroup().getId());
         
         // Activity Message
         activityService.record(
@@ -375,9 +384,7 @@ public class GroupService {
         Group group = getGroupEntityByCode(groupCode);
 
         List<GroupMembership> memberships = membershipRepository.findByGroupId(group.getId());
-        return memberships.stream()
-                .map(groupMapper::toMembershipDTO)
-                .collect(Collectors.toList());
+        return groupMapper.toMembershipDTOList(memberships);
     }
 
     /**
@@ -417,6 +424,7 @@ public class GroupService {
 
         membership.setRole(newRole);
         GroupMembership updatedMembership = membershipRepository.save(membership);
+        membershipRoleCache.evictGroup(membership.getUser().getId(), membership.getGroup().getId());
 
         // Activity Message
         activityService.record(
@@ -443,8 +451,7 @@ public class GroupService {
         User userToAdd = userService.getUserByShortCode(request.getUserCode());
 
         // Pre-requisite: Must be in community
-        if (!communityMembershipRepository.existsByUserIdAndCommunityIdAndStatus(
-                userToAdd.getId(), group.getCommunity().getId(), MembershipStatus.ACCEPTED)) {
+        if (!membershipRoleCache.isCommunityMember(userToAdd.getId(), group.getCommunity().getId())) {
             throw new RuntimeException("User must be a member of the community first");
         }
 
@@ -464,6 +471,8 @@ public class GroupService {
                 : request.getRole());
 
         GroupMembership saved = membershipRepository.save(membership);
+        membershipRoleCache.evictGroup(membership.getUser().getId(), membership.getGroup().getId());
+        entityCountService.adjustGroupMembers(group, 1);
 
         activityService.record(
                 DatabaseType.GROUP,
@@ -501,6 +510,8 @@ public class GroupService {
         }
 
         membershipRepository.delete(membership);
+        membershipRoleCache.evictGroup(membership.getUser().getId(), membership.getGroup().getId());
+        entityCountService.adjustGroupMembers(group, -1);
         
         if (membership.getStatus() == MembershipStatus.ACCEPTED) {
             // Activity Message
@@ -524,9 +535,7 @@ public class GroupService {
         }
 
         List<Group> groups = groupRepository.searchByNameInCommunity(communityId, searchTerm);
-        return groups.stream()
-                .map(groupMapper::toDTO)
-                .collect(Collectors.toList());
+        return groupMapper.toDTOList(groups);
     }
 
     // ========== HELPER METHODS ==========
@@ -539,46 +548,35 @@ public class GroupService {
     }
 
     private Group getGroupEntityByCode(String groupCode) {
-        UUID groupId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.GROUP, groupCode);
-        return groupRepository.findById(groupId)
+        // Rows created before short codes were stored inline are resolved through the global table
+        return groupRepository.findByShortCode(groupCode)
+                .or(() -> groupRepository.findById(
+                        globalShortCodeService.getUUIDfromShortCode(DatabaseType.GROUP, groupCode)))
                 .orElseThrow(() -> new RuntimeException("Group not found with code: " + groupCode));
     }
 
     private boolean isOwner(UUID userId, UUID groupId) {
-        return membershipRepository.findByUserIdAndGroupIdAndStatus(userId, groupId, MembershipStatus.ACCEPTED)
-                .map(m -> m.getRole() == MemberRole.OWNER)
-                .orElse(false);
+        return membershipRoleCache.isGroupOwner(userId, groupId);
     }
 
     private boolean canManageGroup(UUID userId, UUID groupId) {
-        return membershipRepository.findByUserIdAndGroupIdAndStatus(userId, groupId, MembershipStatus.ACCEPTED)
-                .map(m -> m.getRole() == MemberRole.OWNER || m.getRole() == MemberRole.ADMIN)
-                .orElse(false);
+        return membershipRoleCache.isGroupAdminOrOwner(userId, groupId);
     }
 
     private boolean isCommunityOwner(UUID userId, UUID communityId) {
-        return communityMembershipRepository.findByUserIdAndCommunityIdAndStatus(userId, communityId, MembershipStatus.ACCEPTED)
-                .map(m -> m.getRole() == MemberRole.OWNER)
-                .orElse(false);
+        return membershipRoleCache.isCommunityOwner(userId, communityId);
     }
 
     private boolean isCommunityAdmin(UUID userId, UUID communityId) {
-        return communityMembershipRepository.findByUserIdAndCommunityIdAndStatus(userId, communityId, MembershipStatus.ACCEPTED)
-                .map(m -> m.getRole() == MemberRole.ADMIN)
-                .orElse(false);
+        return membershipRoleCache.isCommunityAdmin(userId, communityId);
     }
 
     private boolean isCommunityAdminOrOwner(UUID userId, UUID communityId) {
-        return communityMembershipRepository.findByUserIdAndCommunityIdAndStatus(userId, communityId, MembershipStatus.ACCEPTED)
-                .map(m -> m.getRole() == MemberRole.OWNER || m.getRole() == MemberRole.ADMIN)
-                .orElse(false);
+        return membershipRoleCache.isCommunityAdminOrOwner(userId, communityId);
     }
 
     private boolean canViewGroups(UUID userId, UUID communityId) {
-        // Community Admin/Owner can always see groups
-        if (isCommunityAdminOrOwner(userId, communityId)) return true;
-        
-        // Others must be active members of the community
-        return communityMembershipRepository.existsByUserIdAndCommunityIdAndStatus(userId, communityId, MembershipStatus.ACCEPTED);
+        // Any active member of the community, admins and owners included, can see its groups
+        return membershipRoleCache.isCommunityMember(userId, communityId);
     }
 }
@@ -0,0 +1,122 @@
+package app.Service;
+
+import app.Database.CommunityMembership;
+import app.Database.GroupMembership;
+import app.Database.MemberRole;
+import app.Database.MembershipStatus;
+import app.Repository.CommunityMembershipRepository;
+import app.Repository.GroupMembershipRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Request-scoped cache of accepted membership roles. Each (user, community)
+ * and (user, group) pair is looked up at most once per HTTP request or STOMP
+ * message; every permission check in that request is answered from the cached
+ * role. Outside an open scope (scheduled jobs, startup) lookups go straight to
+ * the repositories.
+ */
+@Component
+public class MembershipRoleCache {
+
+    private static final ThreadLocal<Map<RoleKey, Optional<MemberRole>>> ROLES = new ThreadLocal<>();
+
+    @Autowired
+    private CommunityMembershipRepository communityMembershipRepository;
+
+    @Autowired
+    private GroupMembershipRepository groupMembershipRepository;
+
+    public void open() {
+        if (ROLES.get() == null) {
+            ROLES.set(new HashMap<>());
+        }
+    }
+
+    public void close() {
+        ROLES.remove();
+    }
+
+    /**
+     * Role of an ACCEPTED community member, or null if the user isn't one.
+     */
+    public MemberRole getCommunityRole(UUID userId, UUID communityId) {
+        return lookup(new RoleKey(Scope.COMMUNITY, userId, communityId), () ->
+                communityMembershipRepository.findByUserIdAndCommunityIdAndStatus(userId, communityId, MembershipStatus.ACCEPTED)
+                        .map(CommunityMembership::getRole));
+    }
+
+    /**
+     * Role of an ACCEPTED group member, or null if the user isn't one.
+     */
+    public MemberRole getGroupRole(UUID userId, UUID groupId) {
+        return lookup(new RoleKey(Scope.GROUP, userId, groupId), () ->
+                groupMembershipRepository.findByUserIdAndGroupIdAndStatus(userId, groupId, MembershipStatus.ACCEPTED)
+                        .map(GroupMembership::getRole));
+    }
+
+    public boolean isCommunityOwner(UUID userId, UUID communityId) {
+        return getCommunityRole(userId, communityId) == MemberRole.OWNER;
+    }
+
+    public boolean isCommunityAdmin(UUID userId, UUID communityId) {
+        return getCommunityRole(userId, communityId) == MemberRole.ADMIN;
+    }
+
+    public boolean isCommunityAdminOrOwner(UUID userId, UUID communityId) {
+        MemberRole role = getCommunityRole(userId, communityId);
+        return role == MemberRole.OWNER || role == MemberRole.ADMIN;
+    }
+
+    public boolean isCommunityMember(UUID userId, UUID communityId) {
+        return getCommunityRole(userId, communityId) != null;
+    }
+
+    public boolean isGroupOwner(UUID userId, UUID groupId) {
+        return getGroupRole(userId, groupId) == MemberRole.OWNER;
+    }
+
+    public boolean isGroupAdminOrOwner(UUID userId, UUID groupId) {
+        MemberRole role = getGroupRole(userId, groupId);
+        return role == MemberRole.OWNER || role == MemberRole.ADMIN;
+    }
+
+    public boolean isGroupMember(UUID userId, UUID groupId) {
+        return getGroupRole(userId, groupId) != null;
+    }
+
+    // Call whenever a membership row is created, changed or removed in the current request
+    public void evictCommunity(UUID userId, UUID communityId) {
+        evict(new RoleKey(Scope.COMMUNITY, userId, communityId));
+    }
+
+    public void evictGroup(UUID userId, UUID groupId) {
+        evict(new RoleKey(Scope.GROUP, userId, groupId));
+    }
+
+    private MemberRole lookup(RoleKey key, Supplier<Optional<MemberRole>> loader) {
+        Map<RoleKey, Optional<MemberRole>> roles = ROLES.get();
+        if (roles == null) {
+            return loader.get().orElse(null);
+        }
+        return roles.computeIfAbsent(key, k -> loader.get()).orElse(null);
+    }
+
+    private void evict(RoleKey key) {
+        Map<RoleKey, Optional<MemberRole>> roles = ROLES.get();
+        if (roles != null) {
+            roles.remove(key);
+        }
+    }
+
+    private enum Scope { COMMUNITY, GROUP }
+
+    private record RoleKey(Scope scope, UUID userId, UUID scopeId) {
+    }
+}
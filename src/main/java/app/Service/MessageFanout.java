@@ -0,0 +1,183 @@
+package app.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broadcasts chat payloads to their STOMP topics. Each payload is serialized
+ * to JSON once on the calling thread and the same byte[] is handed to the
+ * broker, which shares it across every subscriber of the topic.
+ *
+ * Topics are sharded by hash over single-threaded workers, so one busy event
+ * can't hold up the others and each topic keeps its publish order. Every
+ * worker has a bounded queue; when it is full the frame is dropped and
+ * counted rather than queued without limit, since a late broadcast is worth
+ * little and clients reload history on reconnect.
+ *
+ * With a coalescing window configured, bursts on chat (/messages) topics are
+ * gathered for that many milliseconds and sent as one {"batch":[...]} frame
+ * built by joining the already serialized payloads. A lone message in a
+ * window is still sent as a plain object, so clients tell the two apart by
+ * the batch key. Presence, typing and attendance topics are never coalesced
+ * here; they already batch on their own.
+ */
+@Component
+public class MessageFanout {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageFanout.class);
+
+    private static final byte[] BATCH_PREFIX = "{\"batch\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_SUFFIX = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final long coalesceWindowMs;
+
+    private final ThreadPoolExecutor[] shards;
+    // Starts each coalescing window and hands the finished burst to its shard
+    private final ScheduledExecutorService windowTimer;
+    private final Map<String, List<byte[]>> pending = new ConcurrentHashMap<>();
+
+    private final Counter messages;
+    private final Counter frames;
+    private final Counter dropped;
+
+    public MessageFanout(SimpMessageSendingOperations messagingTemplate,
+                         ObjectMapper objectMapper,
+                         @Value("${app.messages.fanout.shards:4}") int shardCount,
+                         @Value("${app.messages.fanout.queue-capacity:10000}") int queueCapacity,
+                         @Value("${app.messages.fanout.coalesce-window-ms:0}") long coalesceWindowMs,
+                         MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.coalesceWindowMs = coalesceWindowMs;
+
+        this.shards = new ThreadPoolExecutor[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            String name = "message-fanout-" + i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), r -> daemon(r, name), new ThreadPoolExecutor.AbortPolicy());
+            Gauge.builder("messages.fanout.queue.depth", shards[i], s -> s.getQueue().size())
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        this.windowTimer = coalesceWindowMs > 0
+                ? Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "message-fanout-window"))
+                : null;
+
+        this.messages = Counter.builder("messages.fanout.messages").register(meterRegistry);
+        this.frames = Counter.builder("messages.fanout.frames").register(meterRegistry);
+        this.dropped = Counter.builder("messages.fanout.dropped").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (windowTimer != null) {
+            windowTimer.shutdown();
+        }
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    public void publish(String destination, Object payload) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize message for " + destination, e);
+        }
+        messages.increment();
+
+        if (coalesceWindowMs <= 0 || !destination.endsWith("/messages")) {
+            dispatch(destination, json, 1);
+            return;
+        }
+
+        pending.compute(destination, (topic, burst) -> {
+            if (burst == null) {
+                burst = new ArrayList<>();
+                windowTimer.schedule(() -> flush(topic), coalesceWindowMs, TimeUnit.MILLISECONDS);
+            }
+            burst.add(json);
+            return burst;
+        });
+    }
+
+    // Runs on the window timer, so the bursts of one topic reach its shard in order
+    private void flush(String destination) {
+        List<byte[]> burst = pending.remove(destination);
+        if (burst == null || burst.isEmpty()) {
+            return;
+        }
+        if (burst.size() == 1) {
+            dispatch(destination, burst.get(0), 1);
+            return;
+        }
+
+        int size = BATCH_PREFIX.length + BATCH_SUFFIX.length + burst.stream().mapToInt(b -> b.length + 1).sum();
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(size);
+        frame.writeBytes(BATCH_PREFIX);
+        for (int i = 0; i < burst.size(); i++) {
+            if (i > 0) {
+                frame.write(',');
+            }
+            frame.writeBytes(burst.get(i));
+        }
+        frame.writeBytes(BATCH_SUFFIX);
+        dispatch(destination, frame.toByteArray(), burst.size());
+    }
+
+    private void dispatch(String destination, byte[] json, int messageCount) {
+        int shard = Math.floorMod(destination.hashCode(), shards.length);
+        try {
+            shards[shard].execute(() -> send(destination, json));
+        } catch (RejectedExecutionException e) {
+            dropped.increment(messageCount);
+            logger.warn("Fan-out shard {} is full, dropped {} message(s) for {}", shard, messageCount, destination);
+        }
+    }
+
+    private void send(String destination, byte[] json) {
+        try {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            headers.setLeaveMutable(true);
+            messagingTemplate.send(destination, MessageBuilder.createMessage(json, headers.getMessageHeaders()));
+            frames.increment();
+        } catch (RuntimeException e) {
+            logger.warn("Broadcast to {} failed: {}", destination, e.getMessage());
+        }
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread thread = new Thread(r, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
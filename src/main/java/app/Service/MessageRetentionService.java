@@ -0,0 +1,168 @@
+package app.Service;
+
+import app.Repository.CommunityRepository;
+import app.Repository.EventRepository;
+import app.Repository.MediaRepository;
+import app.Repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Purges chat history past its retention period. Communities and events opt
+ * in through messageRetentionDays; an event's own value wins over its
+ * community's, and community notices follow the community's value.
+ *
+ * Each chat is purged oldest first in chunks of chunk-size messages. Every
+ * chunk is its own short transaction: select the ids, delete their media,
+ * delete the messages, adjust the event's counter. Nothing holds a lock on
+ * the table between chunks, and a run stops after max-chunks-per-run so a
+ * large backlog is worked off over several runs. Events get half of those
+ * chunks and community notices the other half plus whatever events left
+ * unused, so an event backlog can't hold notice retention off.
+ */
+@Service
+public class MessageRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageRetentionService.class);
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CommunityRepository communityRepository;
+
+    @Autowired
+    private EntityCountService entityCountService;
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long chunkPauseMs;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter purged;
+
+    public MessageRetentionService(@Value("${app.messages.retention.enabled:true}") boolean enabled,
+                                   @Value("${app.messages.retention.chunk-size:500}") int chunkSize,
+                                   @Value("${app.messages.retention.max-chunks-per-run:200}") int maxChunksPerRun,
+                                   @Value("${app.messages.retention.chunk-pause-ms:50}") long chunkPauseMs,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.chunkPauseMs = chunkPauseMs;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purged = Counter.builder("messages.retention.purged").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.messages.retention.interval-ms:3600000}",
+            initialDelayString = "${app.messages.retention.initial-delay-ms:300000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            int[] eventBudget = {maxChunksPerRun - maxChunksPerRun / 2};
+            long deleted = 0;
+
+            for (Object[] row : eventRepository.findMessageRetention()) {
+                UUID eventId = (UUID) row[0];
+                LocalDateTime cutoff = cutoff(row);
+                deleted += purge(eventBudget,
+                        pageable -> messageRepository.findIdsByEventIdCreatedBefore(eventId, cutoff, pageable),
+                        count -> entityCountService.adjustEventMessages(eventId, -count));
+            }
+            boolean eventsLeft = eventBudget[0] <= 0;
+
+            int[] communityBudget = {maxChunksPerRun / 2 + Math.max(eventBudget[0], 0)};
+            for (Object[] row : communityRepository.findMessageRetention()) {
+                UUID communityId = (UUID) row[0];
+                LocalDateTime cutoff = cutoff(row);
+                deleted += purge(communityBudget,
+                        pageable -> messageRepository.findIdsByCommunityIdCreatedBefore(communityId, cutoff, pageable),
+                        count -> { });
+            }
+            boolean communitiesLeft = communityBudget[0] <= 0;
+
+            if (deleted > 0) {
+                logger.info("Message retention purged {} messages{}", deleted, leftover(eventsLeft, communitiesLeft));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Message retention failed: {}", e.getMessage());
+        }
+    }
+
+    private static String leftover(boolean events, boolean communities) {
+        if (events && communities) {
+            return ", more left in events and community notices for the next run";
+        }
+        if (events) {
+            return ", more left in events for the next run";
+        }
+        return communities ? ", more left in community notices for the next run" : "";
+    }
+
+    // Rows are (id, retention days)
+    private LocalDateTime cutoff(Object[] row) {
+        return LocalDateTime.now().minusDays(((Number) row[1]).intValue());
+    }
+
+    // budget[0] is the number of non-empty chunks this run may still delete
+    private long purge(int[] budget, Function<Pageable, List<UUID>> findIds,
+                       IntConsumer onDeleted) throws InterruptedException {
+        long total = 0;
+
+        while (budget[0] > 0) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<UUID> ids = findIds.apply(PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                mediaRepository.deleteByMessageIds(ids);
+                int count = messageRepository.deleteByIds(ids);
+                onDeleted.accept(count);
+                return count;
+            });
+
+            if (deleted == 0) {
+                break;
+            }
+            budget[0]--;
+            total += deleted;
+            purged.increment(deleted);
+            if (deleted < chunkSize) {
+                break;
+            }
+            // Give replicas and other writers room between chunks
+            Thread.sleep(chunkPauseMs);
+        }
+
+        return total;
+    }
+}
@@ -1,26 +1,45 @@
 package app.Service;
 
+import app.Config.StompPrincipal;
 import app.Database.*;
 import app.DTO.Message.CreateMessageRequest;
+import app.DTO.Message.MessageCursor;
 import app.DTO.Message.MessageDTO;
 import app.DTO.Message.MessageMapper;
+import app.DTO.Message.MessageSliceDTO;
 import app.Repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class MessageService {
 
+    // Messages mapped and written per persistence-context flush during an export
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     @Autowired
     private MessageRepository messageRepository;
 
@@ -34,13 +53,10 @@ public class MessageService {
     private GroupRepository groupRepository;
 
     @Autowired
-    private CommunityMembershipRepository communityMembershipRepository;
-
-    @Autowired
-    private GroupMembershipRepository groupMembershipRepository;
+    private UserRepository userRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private MediaRepository mediaRepository;
 
     @Autowired
     private MessageMapper messageMapper;
@@ -52,14 +68,104 @@ public class MessageService {
     private GlobalShortCodeService globalShortCodeService;
 
     @Autowired
-    private SimpMessageSendingOperations messagingTemplate;
+    private MembershipRoleCache membershipRoleCache;
+
+    @Autowired
+    private MessageFanout messageFanout;
 
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private EntityCountService entityCountService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MessageWriteBehindQueue writeBehindQueue;
+
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
     @Transactional
     public MessageDTO createMessage(CreateMessageRequest request, String userCode) {
-        User sender = userService.getUserByShortCode(userCode);
+        return createMessage(request, userService.getUserByShortCode(userCode));
+    }
+
+    private MessageDTO createMessage(CreateMessageRequest request, User sender) {
+        Message message = buildMessage(request, sender);
+
+        // persist() assigns the id, the creation/update timestamps and the media
+        // ids in memory, so the DTO can be built without reading the row back
+        Message savedMessage = messageRepository.save(message);
+        if (message.getEvent() != null) {
+            entityCountService.adjustEventMessages(message.getEvent(), 1);
+        }
+
+        MessageDTO dto = messageMapper.toDTO(savedMessage);
+        broadcastMessage(dto);
+        
+        return dto;
+    }
+
+    /**
+     * STOMP send path. Validates the message, assigns its id and timestamps in
+     * memory, broadcasts it and leaves the insert to the write-behind queue.
+     * The row becomes visible to REST reads once the next batch is flushed.
+     * Falls back to {@link #createMessage} when write-behind is disabled.
+     * The sender is the session principal, so no user row is read.
+     *
+     * Not transactional on purpose: offer() may block while the queue is
+     * full, and it must not hold a pooled connection while it waits. The
+     * permission reads run in a short read-only transaction before it.
+     */
+    public MessageDTO submitMessage(CreateMessageRequest request, StompPrincipal principal) {
+        User sender = toSender(principal);
+        if (!writeBehindQueue.isEnabled()) {
+            return writeTransaction.execute(status -> createMessage(request, sender));
+        }
+
+        PreparedMessage prepared = readOnlyTransaction.execute(status -> {
+            Message message = buildMessage(request, sender);
+            message.setId(UUID.randomUUID());
+            message.setCreatedAt(LocalDateTime.now());
+            if (message.getMediaList() != null) {
+                message.getMediaList().forEach(media -> media.setId(UUID.randomUUID()));
+            }
+
+            MessageDTO dto = messageMapper.toDTO(message);
+            dto.setUpdatedAt(message.getCreatedAt());
+            return new PreparedMessage(message, dto);
+        });
+
+        writeBehindQueue.offer(prepared.message());
+        broadcastMessage(prepared.dto());
+
+        return prepared.dto();
+    }
+
+    private record PreparedMessage(Message message, MessageDTO dto) {}
+
+    // Detached stand-in for the sender: only the id is written, the rest feeds the DTO
+    private User toSender(StompPrincipal principal) {
+        User sender = new User();
+        sender.setId(principal.getId());
+        sender.setShortCode(principal.getUserCode());
+        sender.setName(principal.getDisplayName());
+        sender.setProfilePhotoUrl(principal.getProfilePhotoUrl());
+        return sender;
+    }
+
+    // Resolve context and check chat permissions; returns an unsaved entity
+    private Message buildMessage(CreateMessageRequest request, User sender) {
         Event event = null;
         Community community = null;
 
@@ -81,16 +187,7 @@ public class MessageService {
             throw new RuntimeException("Message must have a context (Event or Community)");
         }
 
-        Message message = messageMapper.toEntity(request, event, community, null, sender);
-        Message savedMessage = messageRepository.save(message);
-
-        entityManager.flush();
-        entityManager.refresh(savedMessage);
-        
-        MessageDTO dto = messageMapper.toDTO(savedMessage);
-        broadcastMessage(dto);
-        
-        return dto;
+        return messageMapper.toEntity(request, event, community, null, sender);
     }
 
     private void checkChatPermissions(User user, Community community, Group group) {
@@ -100,14 +197,10 @@ public class MessageService {
         if (group != null) {
             // Even if it's an event in a group, we check group permissions if onlyAdminsCanChat is set on the group
             onlyAdminsCanChat = group.getOnlyAdminsCanChat();
-            role = groupMembershipRepository.findByUserIdAndGroupIdAndStatus(user.getId(), group.getId(), MembershipStatus.ACCEPTED)
-                    .map(GroupMembership::getRole)
-                    .orElse(null);
+            role = membershipRoleCache.getGroupRole(user.getId(), group.getId());
         } else if (community != null) {
             onlyAdminsCanChat = community.getOnlyAdminsCanChat();
-            role = communityMembershipRepository.findByUserIdAndCommunityIdAndStatus(user.getId(), community.getId(), MembershipStatus.ACCEPTED)
-                    .map(CommunityMembership::getRole)
-                    .orElse(null);
+            role = membershipRoleCache.getCommunityRole(user.getId(), community.getId());
         }
 
         if (role == null) {
@@ -119,11 +212,69 @@ public class MessageService {
         }
     }
 
+    private MessageSliceDTO getMessageHistory(String before, String after, int size,
+                                              Function<Pageable, Slice<Message>> latest,
+                                              BiFunction<MessageCursor, Pageable, Slice<Message>> older,
+                                              BiFunction<MessageCursor, Pageable, Slice<Message>> newer) {
+        if (before != null && after != null) {
+            throw new RuntimeException("Use either before or after, not both");
+        }
+
+        Pageable pageable = PageRequest.of(0, size);
+        List<Message> messages;
+        boolean hasOlder;
+
+        if (after != null) {
+            // Newer messages come back oldest first; flip them to match the other windows
+            Slice<Message> slice = newer.apply(MessageCursor.decode(after), pageable);
+            messages = new ArrayList<>(slice.getContent());
+            Collections.reverse(messages);
+            hasOlder = true;
+        } else {
+            Slice<Message> slice = before != null
+                    ? older.apply(MessageCursor.decode(before), pageable)
+                    : latest.apply(pageable);
+            messages = slice.getContent();
+            hasOlder = slice.hasNext();
+        }
+
+        if (messages.isEmpty()) {
+            // Nothing in this direction: newer messages can still be polled from the same position
+            return new MessageSliceDTO(List.of(), null, after != null ? after : before, false);
+        }
+
+        String nextCursor = hasOlder ? MessageCursor.of(messages.get(messages.size() - 1)).encode() : null;
+        String prevCursor = MessageCursor.of(messages.get(0)).encode();
+        return new MessageSliceDTO(messageMapper.toDTOList(messages), nextCursor, prevCursor, hasOlder);
+    }
+
+    private void writeNdjson(Stream<Message> messages, OutputStream out) throws IOException {
+        List<Message> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        Iterator<Message> iterator = messages.iterator();
+
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() < EXPORT_CHUNK_SIZE && iterator.hasNext()) {
+                continue;
+            }
+
+            for (MessageDTO dto : messageMapper.toDTOList(chunk)) {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            }
+            out.flush();
+
+            // Detach the written rows so the persistence context stays bounded
+            chunk.clear();
+            entityManager.clear();
+        }
+    }
+
     private void broadcastMessage(MessageDTO dto) {
         if (dto.getEventCode() != null) {
-            messagingTemplate.convertAndSend("/topic/event/" + dto.getEventCode() + "/messages", dto);
+            messageFanout.publish("/topic/event/" + dto.getEventCode() + "/messages", dto);
         } else if (dto.getCommunityCode() != null) {
-            messagingTemplate.convertAndSend("/topic/community/" + dto.getCommunityCode() + "/messages", dto);
+            messageFanout.publish("/topic/community/" + dto.getCommunityCode() + "/messages", dto);
         }
     }
 
@@ -137,7 +288,7 @@ public class MessageService {
         UUID eventId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.EVENTS, eventCode);
         Pageable pageable = PageRequest.of(page, size);
         Page<Message> messages = messageRepository.findByEventIdOrderByCreatedAtDesc(eventId, pageable);
-        return messages.map(messageMapper::toDTO);
+        return new PageImpl<>(messageMapper.toDTOList(messages.getContent()), pageable, messages.getTotalElements());
     }
 
     public List<MessageDTO> getAllMessagesByEventCode(String eventCode) {
@@ -150,7 +301,48 @@ public class MessageService {
         UUID communityId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, communityCode);
         Pageable pageable = PageRequest.of(page, size);
         Page<Message> messages = messageRepository.findByCommunityIdOrderByCreatedAtDesc(communityId, pageable);
-        return messages.map(messageMapper::toDTO);
+        return new PageImpl<>(messageMapper.toDTOList(messages.getContent()), pageable, messages.getTotalElements());
+    }
+
+    /**
+     * Cursor-paged event history. Pass before to load older messages, after to
+     * load newer ones, or neither for the latest window.
+     */
+    public MessageSliceDTO getMessageHistoryByEventCode(String eventCode, String before, String after, int size) {
+        UUID eventId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.EVENTS, eventCode);
+        return getMessageHistory(before, after, size,
+                pageable -> messageRepository.findLatestByEventId(eventId, pageable),
+                (cursor, pageable) -> messageRepository.findByEventIdBefore(eventId, cursor.createdAt(), cursor.id(), pageable),
+                (cursor, pageable) -> messageRepository.findByEventIdAfter(eventId, cursor.createdAt(), cursor.id(), pageable));
+    }
+
+    public MessageSliceDTO getMessageHistoryByCommunityCode(String communityCode, String before, String after, int size) {
+        UUID communityId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, communityCode);
+        return getMessageHistory(before, after, size,
+                pageable -> messageRepository.findLatestByCommunityId(communityId, pageable),
+                (cursor, pageable) -> messageRepository.findByCommunityIdBefore(communityId, cursor.createdAt(), cursor.id(), pageable),
+                (cursor, pageable) -> messageRepository.findByCommunityIdAfter(communityId, cursor.createdAt(), cursor.id(), pageable));
+    }
+
+    /**
+     * Write the whole event history, oldest first, as newline-delimited JSON.
+     * Rows come through a forward-only cursor and are released chunk by chunk,
+     * so memory use doesn't grow with the length of the history.
+     */
+    @Transactional
+    public void exportMessagesByEventCode(String eventCode, OutputStream out) throws IOException {
+        UUID eventId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.EVENTS, eventCode);
+        try (Stream<Message> messages = messageRepository.streamByEventId(eventId)) {
+            writeNdjson(messages, out);
+        }
+    }
+
+    @Transactional
+    public void exportMessagesByCommunityCode(String communityCode, OutputStream out) throws IOException {
+        UUID communityId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, communityCode);
+        try (Stream<Message> messages = messageRepository.streamByCommunityId(communityId)) {
+            writeNdjson(messages, out);
+        }
     }
 
     public List<MessageDTO> getAllMessagesByCommunityCode(String communityCode) {
@@ -178,21 +370,35 @@ public class MessageService {
 
     @Transactional
     public void deleteMessage(UUID messageId, String userCode) {
+        deleteMessage(messageId, userService.getUserByShortCode(userCode).getId());
+    }
+
+    @Transactional
+    public void deleteMessage(UUID messageId, StompPrincipal principal) {
+        deleteMessage(messageId, principal.getId());
+    }
+
+    private void deleteMessage(UUID messageId, UUID userId) {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message not found"));
 
-        User user = userService.getUserByShortCode(userCode);
-
         // Only the sender can delete their message
-        if (!message.getSender().getId().equals(user.getId())) {
+        if (!message.getSender().getId().equals(userId)) {
             throw new RuntimeException("Unauthorized to delete this message");
         }
 
-        messageRepository.delete(message);
+        // Two statements instead of loading the media list and removing it row by row
+        mediaRepository.deleteByMessageId(messageId);
+        messageRepository.deleteByIds(List.of(messageId));
+        if (message.getEvent() != null) {
+            entityCountService.adjustEventMessages(message.getEvent(), -1);
+        }
     }
 
     @Transactional
     public void deleteMessagesByEventId(UUID eventId) {
-        messageRepository.deleteByEventId(eventId);
+        mediaRepository.deleteByEventId(eventId);
+        int deleted = messageRepository.deleteByEventId(eventId);
+        entityCountService.adjustEventMessages(eventId, -deleted);
     }
 }
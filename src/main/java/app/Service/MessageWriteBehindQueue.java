@@ -0,0 +1,235 @@
+package app.Service;
+
+import app.Database.Media;
+import app.Database.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded write-behind buffer for chat messages sent over STOMP. Messages are
+ * broadcast as soon as they are accepted here; a single writer thread drains
+ * the queue in arrival order and inserts each batch with JDBC batching in one
+ * transaction. One FIFO queue and one writer keep every event and community
+ * topic in send order.
+ *
+ * When the queue is full, offer() waits up to the configured timeout and then
+ * rejects the message, so senders slow down instead of the heap growing.
+ */
+@Component
+public class MessageWriteBehindQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageWriteBehindQueue.class);
+
+    private static final String INSERT_MESSAGE =
+            "INSERT INTO messages (id, event_id, community_id, group_id, user_id, type, content, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_MEDIA =
+            "INSERT INTO media (id, media_type, url, size_in_bytes, width, height, duration_in_seconds, message_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityCountService entityCountService;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+
+    private final BlockingQueue<Message> queue;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer flushTimer;
+    private final Counter rejected;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public MessageWriteBehindQueue(@Value("${app.messages.write-behind.enabled:true}") boolean enabled,
+                                   @Value("${app.messages.write-behind.capacity:10000}") int capacity,
+                                   @Value("${app.messages.write-behind.batch-size:200}") int batchSize,
+                                   @Value("${app.messages.write-behind.flush-interval-ms:50}") long flushIntervalMs,
+                                   @Value("${app.messages.write-behind.offer-timeout-ms:500}") long offerTimeoutMs,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("messages.write_behind.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.flushTimer = Timer.builder("messages.write_behind.flush").register(meterRegistry);
+        this.rejected = Counter.builder("messages.write_behind.rejected").register(meterRegistry);
+        this.failed = Counter.builder("messages.write_behind.failed").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "message-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Let the writer finish its batch, then write out whatever is still buffered.
+    // No interrupt: it would fail the in-flight batch's connection checkout, and
+    // the writer notices running=false within one flush interval anyway.
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+            if (writer.isAlive()) {
+                // Flushing alongside the writer would break send order
+                logger.error("Message write-behind writer did not stop, {} queued messages not written", queue.size());
+                return;
+            }
+        }
+        flushRemaining();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a message whose id and timestamps are already assigned. Throws if
+     * the queue stays full for longer than the offer timeout.
+     */
+    public void offer(Message message) {
+        try {
+            if (queue.offer(message, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        throw new RuntimeException("Too many messages are being sent right now, please retry");
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<Message> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Message first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Message write-behind flush failed: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushRemaining() {
+        List<Message> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<Message> batch) {
+        flushTimer.record(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+            } catch (RuntimeException e) {
+                // One bad row (e.g. its event was deleted meanwhile) must not sink the rest
+                logger.warn("Batch insert of {} messages failed, retrying one by one: {}", batch.size(), e.getMessage());
+                for (Message message : batch) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insert(List.of(message)));
+                    } catch (RuntimeException single) {
+                        failed.increment();
+                        logger.error("Dropping message {}: {}", message.getId(), single.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    private void insert(List<Message> messages) {
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, messages, messages.size(), (ps, m) -> {
+            Timestamp createdAt = Timestamp.valueOf(m.getCreatedAt());
+            ps.setObject(1, m.getId());
+            ps.setObject(2, m.getEvent() != null ? m.getEvent().getId() : null);
+            ps.setObject(3, m.getCommunity() != null ? m.getCommunity().getId() : null);
+            ps.setObject(4, m.getGroup() != null ? m.getGroup().getId() : null);
+            ps.setObject(5, m.getSender().getId());
+            ps.setString(6, m.getType().name());
+            ps.setString(7, m.getContent());
+            ps.setTimestamp(8, createdAt);
+            ps.setTimestamp(9, createdAt);
+        });
+
+        List<Media> media = messages.stream()
+                .filter(m -> m.getMediaList() != null)
+                .flatMap(m -> m.getMediaList().stream())
+                .toList();
+        if (!media.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MEDIA, media, media.size(), (ps, md) -> {
+                ps.setObject(1, md.getId());
+                ps.setString(2, md.getMediaType() != null ? md.getMediaType().name() : null);
+                ps.setString(3, md.getUrl());
+                ps.setObject(4, md.getSizeInBytes());
+                ps.setObject(5, md.getWidth());
+                ps.setObject(6, md.getHeight());
+                ps.setObject(7, md.getDurationInSeconds());
+                ps.setObject(8, md.getMessage().getId());
+            });
+        }
+
+        // One counter update per event rather than per message
+        Map<UUID, Integer> perEvent = new LinkedHashMap<>();
+        for (Message m : messages) {
+            if (m.getEvent() != null) {
+                perEvent.merge(m.getEvent().getId(), 1, Integer::sum);
+            }
+        }
+        perEvent.forEach(entityCountService::adjustEventMessages);
+    }
+}
@@ -0,0 +1,189 @@
+package app.Service;
+
+import app.DTO.Presence.PresenceDeltaDTO;
+import app.DTO.Presence.PresenceSnapshotDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory presence, scoped to the events and communities a client is
+ * actually watching. A session joins a scope when it subscribes to the
+ * /messages or /typing topic of /topic/event/{code} or /topic/community/{code}
+ * and leaves it on unsubscribe or disconnect. Other subtopics (presence,
+ * attendance) don't count, so watching a roster doesn't show a user as in the
+ * chat. A user counts as online in a scope while at least one of their
+ * sessions is in it.
+ *
+ * State is one entry per session plus a userCode -> session-count map per
+ * scope, with no per-message or per-subscriber allocations. Changes are
+ * collected and published as one delta per scope on a fixed interval; a user
+ * who drops and reconnects within the interval produces no delta at all.
+ *
+ * Presence is per node: each instance only sees the sessions connected to it.
+ * In broker relay mode the deltas reach every subscriber through the broker,
+ * but the snapshot endpoints and the online counts only cover users on the
+ * node that answers, until presence is kept in a shared store.
+ */
+@Service
+public class PresenceService {
+
+    private static final Pattern SCOPED_TOPIC = Pattern.compile("^(/topic/(?:event|community)/[^/]+)/(?:messages|typing)$");
+
+    private final MessageFanout messageFanout;
+    private final int maxScopesPerSession;
+
+    private final Map<String, SessionPresence> sessions = new ConcurrentHashMap<>();
+    // scope -> userCode -> number of that user's sessions in the scope
+    private final Map<String, Map<String, Integer>> members = new ConcurrentHashMap<>();
+    // scope -> userCode -> whether the user was online when the current window opened
+    private final Map<String, Map<String, Boolean>> pending = new ConcurrentHashMap<>();
+
+    public PresenceService(MessageFanout messageFanout,
+                           @Value("${app.presence.max-scopes-per-session:32}") int maxScopesPerSession,
+                           MeterRegistry meterRegistry) {
+        this.messageFanout = messageFanout;
+        this.maxScopesPerSession = maxScopesPerSession;
+
+        Gauge.builder("presence.sessions", sessions, Map::size).register(meterRegistry);
+        Gauge.builder("presence.scopes", members, Map::size).register(meterRegistry);
+    }
+
+    public void subscribe(String sessionId, String userCode, String subscriptionId, String destination) {
+        if (userCode == null || subscriptionId == null || destination == null) {
+            return;
+        }
+        Matcher matcher = SCOPED_TOPIC.matcher(destination);
+        if (!matcher.matches()) {
+            return;
+        }
+
+        String scope = matcher.group(1);
+        SessionPresence session = sessions.computeIfAbsent(sessionId, id -> new SessionPresence(userCode));
+        synchronized (session) {
+            if (!session.scopeRefs.containsKey(scope) && session.scopeRefs.size() >= maxScopesPerSession) {
+                return;
+            }
+            session.subscriptions.put(subscriptionId, scope);
+            if (session.scopeRefs.merge(scope, 1, Integer::sum) == 1) {
+                join(scope, session.userCode);
+            }
+        }
+    }
+
+    public void unsubscribe(String sessionId, String subscriptionId) {
+        SessionPresence session = sessions.get(sessionId);
+        if (session == null || subscriptionId == null) {
+            return;
+        }
+        synchronized (session) {
+            String scope = session.subscriptions.remove(subscriptionId);
+            if (scope != null && session.scopeRefs.merge(scope, -1, Integer::sum) == 0) {
+                session.scopeRefs.remove(scope);
+                leave(scope, session.userCode);
+            }
+        }
+    }
+
+    public void disconnect(String sessionId) {
+        SessionPresence session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        synchronized (session) {
+            session.scopeRefs.keySet().forEach(scope -> leave(scope, session.userCode));
+            session.scopeRefs.clear();
+            session.subscriptions.clear();
+        }
+    }
+
+    public PresenceSnapshotDTO getEventPresence(String eventCode) {
+        return snapshot("/topic/event/" + eventCode);
+    }
+
+    public PresenceSnapshotDTO getCommunityPresence(String communityCode) {
+        return snapshot("/topic/community/" + communityCode);
+    }
+
+    /**
+     * Publish the net changes of the last window to each affected scope.
+     */
+    @Scheduled(fixedDelayString = "${app.presence.flush-interval-ms:1000}")
+    public void publishDeltas() {
+        for (String scope : pending.keySet()) {
+            Map<String, Boolean> changes = pending.remove(scope);
+            if (changes == null) {
+                continue;
+            }
+
+            Map<String, Integer> current = members.getOrDefault(scope, Map.of());
+            List<String> online = new ArrayList<>();
+            List<String> offline = new ArrayList<>();
+            changes.forEach((userCode, wasOnline) -> {
+                boolean isOnline = current.containsKey(userCode);
+                if (isOnline && !wasOnline) {
+                    online.add(userCode);
+                } else if (!isOnline && wasOnline) {
+                    offline.add(userCode);
+                }
+            });
+
+            if (!online.isEmpty() || !offline.isEmpty()) {
+                messageFanout.publish(scope + "/presence", new PresenceDeltaDTO(online, offline));
+            }
+        }
+    }
+
+    private void join(String scope, String userCode) {
+        // Inside compute so a concurrent leave can't drop the scope map out from under us
+        members.compute(scope, (s, users) -> {
+            Map<String, Integer> scoped = users != null ? users : new ConcurrentHashMap<>();
+            scoped.compute(userCode, (user, count) -> {
+                markChanged(scope, user, count != null);
+                return count == null ? 1 : count + 1;
+            });
+            return scoped;
+        });
+    }
+
+    private void leave(String scope, String userCode) {
+        members.computeIfPresent(scope, (s, users) -> {
+            users.computeIfPresent(userCode, (user, count) -> {
+                markChanged(scope, user, true);
+                return count > 1 ? count - 1 : null;
+            });
+            // Drop empty scopes so finished events don't linger in memory
+            return users.isEmpty() ? null : users;
+        });
+    }
+
+    // Remember only the state at the start of the window; later flips within it cancel out
+    private void markChanged(String scope, String userCode, boolean wasOnline) {
+        pending.computeIfAbsent(scope, s -> new ConcurrentHashMap<>()).putIfAbsent(userCode, wasOnline);
+    }
+
+    private PresenceSnapshotDTO snapshot(String scope) {
+        return new PresenceSnapshotDTO(new ArrayList<>(members.getOrDefault(scope, Map.of()).keySet()));
+    }
+
+    private static final class SessionPresence {
+        private final String userCode;
+        // subscription id -> scope, and scope -> number of this session's subscriptions in it
+        private final Map<String, String> subscriptions = new HashMap<>(4);
+        private final Map<String, Integer> scopeRefs = new HashMap<>(4);
+
+        private SessionPresence(String userCode) {
+            this.userCode = userCode;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package app.Service;
+
+import app.Database.DatabaseType;
+import app.Database.ReadMarker;
+import app.DTO.Message.UnreadCountDTO;
+import app.Repository.MessageRepository;
+import app.Repository.ReadMarkerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-user "last read" markers for event and community chats. Read receipts
+ * only move an in-memory marker forward; a user scrolling through a busy chat
+ * sends many receipts but leaves one pending entry per chat. A scheduled
+ * flush writes the pending markers with one batched UPDATE and one batched
+ * INSERT for markers that don't have a row yet. Markers never move backwards,
+ * in memory or in the table.
+ *
+ * Unread counts check the pending marker first, so a client sees its own
+ * receipt before it has been flushed.
+ */
+@Service
+public class ReadMarkerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadMarkerService.class);
+
+    private static final String UPDATE_MARKER =
+            "UPDATE read_markers SET last_read_message_id = ?, last_read_at = ?, updated_at = ? " +
+            "WHERE user_id = ? AND %1$s = ? AND last_read_at <= ?";
+
+    private static final String INSERT_MARKER =
+            "INSERT INTO read_markers (id, user_id, %1$s, last_read_message_id, last_read_at, updated_at) " +
+            "SELECT ?, ?, ?, ?, ?, ? WHERE NOT EXISTS " +
+            "(SELECT 1 FROM read_markers WHERE user_id = ? AND %1$s = ?)";
+
+    @Autowired
+    private ReadMarkerRepository readMarkerRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private GlobalShortCodeService globalShortCodeService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    private final Map<MarkerKey, Position> pending = new ConcurrentHashMap<>();
+
+    private final Counter receipts;
+    private final Counter written;
+
+    public ReadMarkerService(@Value("${app.read-markers.batch-size:500}") int batchSize,
+                             MeterRegistry meterRegistry) {
+        this.batchSize = batchSize;
+
+        Gauge.builder("read_markers.pending", pending, Map::size).register(meterRegistry);
+        this.receipts = Counter.builder("read_markers.receipts").register(meterRegistry);
+        this.written = Counter.builder("read_markers.written").register(meterRegistry);
+    }
+
+    // ===================== Receipts =====================
+
+    public void markEventRead(String eventCode, UUID userId, UUID messageId, LocalDateTime createdAt) {
+        UUID eventId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.EVENTS, eventCode);
+        markRead(new MarkerKey(userId, true, eventId), messageId, createdAt);
+    }
+
+    public void markCommunityRead(String communityCode, UUID userId, UUID messageId, LocalDateTime createdAt) {
+        UUID communityId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, communityCode);
+        markRead(new MarkerKey(userId, false, communityId), messageId, createdAt);
+    }
+
+    private void markRead(MarkerKey key, UUID messageId, LocalDateTime createdAt) {
+        if (messageId == null || createdAt == null) {
+            throw new RuntimeException("Read receipt needs messageId and createdAt");
+        }
+        receipts.increment();
+        Position position = new Position(messageId, createdAt);
+        pending.merge(key, position, (current, next) -> next.createdAt().isBefore(current.createdAt()) ? current : next);
+    }
+
+    // ===================== Unread counts =====================
+
+    public UnreadCountDTO getEventUnreadCount(String eventCode, String userCode) {
+        UUID eventId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.EVENTS, eventCode);
+        UUID userId = userService.getUserByShortCode(userCode).getId();
+
+        Position position = position(new MarkerKey(userId, true, eventId),
+                () -> readMarkerRepository.findByUserIdAndEventId(userId, eventId));
+        long unread = position == null
+                ? messageRepository.countByEventIdAndSenderIdNot(eventId, userId)
+                : messageRepository.countUnreadByEventId(eventId, userId, position.createdAt(), position.messageId());
+        return toDTO(unread, position);
+    }
+
+    public UnreadCountDTO getCommunityUnreadCount(String communityCode, String userCode) {
+        UUID communityId = globalShortCodeService.getUUIDfromShortCode(DatabaseType.COMMUNITY, communityCode);
+        UUID userId = userService.getUserByShortCode(userCode).getId();
+
+        Position position = position(new MarkerKey(userId, false, communityId),
+                () -> readMarkerRepository.findByUserIdAndCommunityId(userId, communityId));
+        long unread = position == null
+                ? messageRepository.countByCommunityIdAndSenderIdNot(communityId, userId)
+                : messageRepository.countUnreadByCommunityId(communityId, userId, position.createdAt(), position.messageId());
+        return toDTO(unread, position);
+    }
+
+    private Position position(MarkerKey key, Supplier<Optional<ReadMarker>> stored) {
+        Position unflushed = pending.get(key);
+        if (unflushed != null) {
+            return unflushed;
+        }
+        return stored.get()
+                .map(marker -> new Position(marker.getLastReadMessageId(), marker.getLastReadAt()))
+                .orElse(null);
+    }
+
+    private UnreadCountDTO toDTO(long unread, Position position) {
+        return position == null
+                ? new UnreadCountDTO(unread, null, null)
+                : new UnreadCountDTO(unread, position.messageId(), position.createdAt());
+    }
+
+    // ===================== Flush =====================
+
+    @Scheduled(fixedDelayString = "${app.read-markers.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<MarkerKey, Position>> events = new ArrayList<>();
+        List<Map.Entry<MarkerKey, Position>> communities = new ArrayList<>();
+        for (Map.Entry<MarkerKey, Position> entry : pending.entrySet()) {
+            (entry.getKey().event() ? events : communities).add(Map.entry(entry.getKey(), entry.getValue()));
+        }
+
+        write(events, "event_id");
+        write(communities, "community_id");
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<Map.Entry<MarkerKey, Position>> markers, String scopeColumn) {
+        for (int i = 0; i < markers.size(); i += batchSize) {
+            List<Map.Entry<MarkerKey, Position>> batch = markers.subList(i, Math.min(i + batchSize, markers.size()));
+            try {
+                writeBatch(batch, scopeColumn);
+                // Only drop entries that didn't move forward while we were writing
+                batch.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+                written.increment(batch.size());
+            } catch (DataIntegrityViolationException e) {
+                // One marker whose user or chat was deleted meanwhile must not sink the rest
+                logger.warn("Read marker flush of {} rows failed, retrying one by one: {}", batch.size(), e.getMessage());
+                batch.forEach(entry -> writeOne(entry, scopeColumn));
+            } catch (RuntimeException e) {
+                // Left pending, so the next flush retries them
+                logger.warn("Read marker flush of {} rows failed: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void writeOne(Map.Entry<MarkerKey, Position> entry, String scopeColumn) {
+        try {
+            writeBatch(List.of(entry), scopeColumn);
+            pending.remove(entry.getKey(), entry.getValue());
+            written.increment();
+        } catch (DataIntegrityViolationException e) {
+            pending.remove(entry.getKey(), entry.getValue());
+            logger.warn("Dropping read marker of user {}: {}", entry.getKey().userId(), e.getMessage());
+        } catch (RuntimeException e) {
+            // Left pending, so the next flush retries it
+            logger.warn("Read marker flush failed: {}", e.getMessage());
+        }
+    }
+
+    private void writeBatch(List<Map.Entry<MarkerKey, Position>> batch, String scopeColumn) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[] updated = jdbcTemplate.batchUpdate(String.format(UPDATE_MARKER, scopeColumn), batch.stream()
+                .map(entry -> new Object[]{
+                        entry.getValue().messageId(), Timestamp.valueOf(entry.getValue().createdAt()), now,
+                        entry.getKey().userId(), entry.getKey().scopeId(), Timestamp.valueOf(entry.getValue().createdAt())
+                })
+                .toList());
+
+        // 0 rows means either no marker yet or a newer one already stored; NOT EXISTS sorts that out
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (updated[i] == 0) {
+                MarkerKey key = batch.get(i).getKey();
+                Position position = batch.get(i).getValue();
+                inserts.add(new Object[]{
+                        UUID.randomUUID(), key.userId(), key.scopeId(),
+                        position.messageId(), Timestamp.valueOf(position.createdAt()), now,
+                        key.userId(), key.scopeId()
+                });
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(String.format(INSERT_MARKER, scopeColumn), inserts);
+        }
+    }
+
+    // event is true for event chats, false for community chats
+    private record MarkerKey(UUID userId, boolean event, UUID scopeId) {}
+
+    private record Position(UUID messageId, LocalDateTime createdAt) {}
+}
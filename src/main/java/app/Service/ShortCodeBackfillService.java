@@ -0,0 +1,79 @@
+package app.Service;
+
+import app.Database.DatabaseType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Copies reserved codes from global_short_codes onto the short_code column of
+ * the rows they belong to. New rows get their code on creation; this only
+ * catches up rows created before the column existed.
+ */
+@Service
+public class ShortCodeBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortCodeBackfillService.class);
+
+    private static final Map<DatabaseType, String> TABLES = Map.of(
+            DatabaseType.USER, "users",
+            DatabaseType.COMMUNITY, "communities",
+            DatabaseType.GROUP, "groups",
+            DatabaseType.EVENTS, "events"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.short-code.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.short-code.backfill.batch-size:500}")
+    private int batchSize;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        TABLES.forEach((type, table) -> {
+            try {
+                int updated = backfill(type, table);
+                if (updated > 0) {
+                    logger.info("Backfilled {} short codes into {}", updated, table);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Short code backfill for {} failed: {}", table, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Fill the table in batches of batchSize. Each statement commits on its own,
+     * so a restart simply picks up the rows that are still null.
+     */
+    public int backfill(DatabaseType type, String table) {
+        String sql = "UPDATE " + table + " t SET short_code = " +
+                "(SELECT g.code FROM global_short_codes g WHERE g.type = ? AND g.reference_id = t.id) " +
+                "WHERE t.id IN (SELECT r.id FROM " + table + " r WHERE r.short_code IS NULL " +
+                "AND EXISTS (SELECT 1 FROM global_short_codes g2 WHERE g2.type = ? AND g2.reference_id = r.id) " +
+                "LIMIT ?)";
+
+        int total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(sql, type.name(), type.name(), batchSize);
+            total += updated;
+        } while (updated == batchSize);
+        return total;
+    }
+}
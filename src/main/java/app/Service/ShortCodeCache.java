@@ -0,0 +1,121 @@
+package app.Service;
+
+import app.Database.DatabaseType;
+import app.Database.GlobalShortCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Bounded, two-way in-process cache of reserved short codes.
+ * Codes never change once reserved, so entries only leave the cache through
+ * LRU eviction or an explicit {@link #invalidate(String)}.
+ */
+@Component
+public class ShortCodeCache {
+
+    private final int maxSize;
+
+    // code -> entry, in access order so the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> byCode;
+
+    // (type, referenceId) -> code, kept in sync with byCode
+    private final Map<ReferenceKey, String> byReference = new HashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ShortCodeCache(@Value("${app.short-code.cache.max-size:10000}") int maxSize,
+                          MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.byCode = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ShortCodeCache.this.maxSize) {
+                    byReference.remove(new ReferenceKey(eldest.getValue().type(), eldest.getValue().referenceId()));
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("shortcode.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("shortcode.cache.misses").register(meterRegistry);
+        this.evictions = Counter.builder("shortcode.cache.evictions").register(meterRegistry);
+        Gauge.builder("shortcode.cache.size", this, ShortCodeCache::size).register(meterRegistry);
+    }
+
+    public synchronized Entry getByCode(String code) {
+        Entry entry = byCode.get(code);
+        record(entry != null);
+        return entry;
+    }
+
+    public synchronized String getCode(DatabaseType type, UUID referenceId) {
+        String code = byReference.get(new ReferenceKey(type, referenceId));
+        if (code != null) {
+            // Touch the primary map so reverse lookups keep the entry warm as well
+            byCode.get(code);
+        }
+        record(code != null);
+        return code;
+    }
+
+    public synchronized void put(String code, DatabaseType type, UUID referenceId) {
+        if (code == null || type == null || referenceId == null) {
+            return;
+        }
+        Entry previous = byCode.put(code, new Entry(code, type, referenceId));
+        if (previous != null) {
+            byReference.remove(new ReferenceKey(previous.type(), previous.referenceId()));
+        }
+        byReference.put(new ReferenceKey(type, referenceId), code);
+    }
+
+    public void put(GlobalShortCode shortCode) {
+        put(shortCode.getCode(), shortCode.getType(), shortCode.getReferenceId());
+    }
+
+    public synchronized void invalidate(String code) {
+        Entry removed = byCode.remove(code);
+        if (removed != null) {
+            byReference.remove(new ReferenceKey(removed.type(), removed.referenceId()));
+        }
+    }
+
+    public synchronized int size() {
+        return byCode.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private void record(boolean hit) {
+        if (hit) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+    public record Entry(String code, DatabaseType type, UUID referenceId) {
+    }
+
+    private record ReferenceKey(DatabaseType type, UUID referenceId) {
+        ReferenceKey {
+            Objects.requireNonNull(type);
+            Objects.requireNonNull(referenceId);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package app.Service;
+
+import app.Database.DatabaseType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory pool of codes that already have a row in global_short_codes but
+ * no reference yet. Creates draw from it without locking; the database work
+ * of reserving new codes happens in the background refill.
+ */
+@Component
+public class ShortCodePool {
+
+    private final boolean enabled;
+    private final int targetSize;
+    private final int lowWaterMark;
+
+    private final Map<DatabaseType, Queue<String>> codes = new EnumMap<>(DatabaseType.class);
+    private final Map<DatabaseType, AtomicInteger> depths = new EnumMap<>(DatabaseType.class);
+
+    private final Counter misses;
+    private final Timer refillTimer;
+
+    public ShortCodePool(@Value("${app.short-code.pool.enabled:true}") boolean enabled,
+                         @Value("${app.short-code.pool.size:200}") int targetSize,
+                         @Value("${app.short-code.pool.low-water-mark:50}") int lowWaterMark,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.targetSize = targetSize;
+        this.lowWaterMark = lowWaterMark;
+
+        for (DatabaseType type : DatabaseType.values()) {
+            codes.put(type, new ConcurrentLinkedQueue<>());
+            AtomicInteger depth = new AtomicInteger();
+            depths.put(type, depth);
+            Gauge.builder("shortcode.pool.depth", depth, AtomicInteger::get)
+                    .tag("type", type.name())
+                    .register(meterRegistry);
+        }
+
+        this.misses = Counter.builder("shortcode.pool.misses").register(meterRegistry);
+        this.refillTimer = Timer.builder("shortcode.pool.refill").register(meterRegistry);
+    }
+
+    /**
+     * Take a pre-reserved code, or null when the pool is disabled or drained.
+     */
+    public String poll(DatabaseType type) {
+        if (!enabled) {
+            return null;
+        }
+        String code = codes.get(type).poll();
+        if (code == null) {
+            misses.increment();
+            return null;
+        }
+        depths.get(type).decrementAndGet();
+        return code;
+    }
+
+    public void addAll(DatabaseType type, Collection<String> reserved) {
+        codes.get(type).addAll(reserved);
+        depths.get(type).addAndGet(reserved.size());
+    }
+
+    public int depth(DatabaseType type) {
+        return depths.get(type).get();
+    }
+
+    public boolean needsRefill(DatabaseType type) {
+        return enabled && depth(type) < lowWaterMark;
+    }
+
+    // How many codes a refill should reserve to bring the pool back to its target size
+    public int deficit(DatabaseType type) {
+        return Math.max(0, targetSize - depth(type));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getTargetSize() {
+        return targetSize;
+    }
+
+    public Timer getRefillTimer() {
+        return refillTimer;
+    }
+}
@@ -0,0 +1,101 @@
+package app.Service;
+
+import app.DTO.Message.TypingStatusDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typing indicators, kept entirely in memory. Incoming typing frames only
+ * record "user X is typing in topic T until t", so a user hammering the key
+ * costs one map write per frame and nothing on the wire. On a fixed interval
+ * each active topic gets at most one aggregated frame, and only when the set
+ * of typing users actually changed. Entries expire on their own if the
+ * client never sends the stop frame.
+ */
+@Service
+public class TypingService {
+
+    private final MessageFanout messageFanout;
+    private final long ttlMs;
+    private final int maxListedUsers;
+
+    // topic -> userCode -> expiry in epoch millis
+    private final Map<String, Map<String, Long>> typing = new ConcurrentHashMap<>();
+    // topic -> the user list last sent there; only touched by the flush thread
+    private final Map<String, List<String>> lastSent = new ConcurrentHashMap<>();
+
+    private final Counter received;
+    private final Counter frames;
+
+    public TypingService(MessageFanout messageFanout,
+                         @Value("${app.typing.ttl-ms:5000}") long ttlMs,
+                         @Value("${app.typing.max-listed-users:5}") int maxListedUsers,
+                         MeterRegistry meterRegistry) {
+        this.messageFanout = messageFanout;
+        this.ttlMs = ttlMs;
+        this.maxListedUsers = maxListedUsers;
+
+        Gauge.builder("typing.topics", typing, Map::size).register(meterRegistry);
+        this.received = Counter.builder("typing.received").register(meterRegistry);
+        this.frames = Counter.builder("typing.frames").register(meterRegistry);
+    }
+
+    public void eventTyping(String eventCode, String userCode, boolean isTyping) {
+        update("/topic/event/" + eventCode + "/typing", userCode, isTyping);
+    }
+
+    public void communityTyping(String communityCode, String userCode, boolean isTyping) {
+        update("/topic/community/" + communityCode + "/typing", userCode, isTyping);
+    }
+
+    private void update(String topic, String userCode, boolean isTyping) {
+        received.increment();
+        if (isTyping) {
+            long expiresAt = System.currentTimeMillis() + ttlMs;
+            typing.computeIfAbsent(topic, t -> new ConcurrentHashMap<>()).put(userCode, expiresAt);
+        } else {
+            Map<String, Long> users = typing.get(topic);
+            if (users != null) {
+                users.remove(userCode);
+            }
+        }
+    }
+
+    /**
+     * Send one frame per topic whose typing set changed since the last run.
+     */
+    @Scheduled(fixedDelayString = "${app.typing.flush-interval-ms:1000}")
+    public void publish() {
+        long now = System.currentTimeMillis();
+
+        for (String topic : typing.keySet()) {
+            Map<String, Long> users = typing.get(topic);
+            users.values().removeIf(expiresAt -> expiresAt <= now);
+
+            List<String> current = new ArrayList<>(users.keySet());
+            current.sort(null);
+            if (!current.equals(lastSent.getOrDefault(topic, List.of()))) {
+                List<String> listed = current.size() > maxListedUsers ? current.subList(0, maxListedUsers) : current;
+                messageFanout.publish(topic, new TypingStatusDTO(List.copyOf(listed), current.size()));
+                frames.increment();
+            }
+
+            if (current.isEmpty()) {
+                // Nobody left typing: forget the topic, unless someone started again meanwhile
+                typing.computeIfPresent(topic, (t, u) -> u.isEmpty() ? null : u);
+                lastSent.remove(topic);
+            } else {
+                lastSent.put(topic, current);
+            }
+        }
+    }
+}
@@ -13,7 +13,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class UserService {
@@ -35,7 +34,8 @@ public class UserService {
         userRepository.save(user);
 
         UUID userUUID = user.getId();
-        globalShortCodeService.generateAndReserve(DatabaseType.USER, userUUID);
+        user.setShortCode(globalShortCodeService.generateAndReserve(DatabaseType.USER, userUUID));
+        userRepository.save(user);
 
         return true;
     }
@@ -63,23 +63,21 @@ public class UserService {
     public String getUserShortCodeByEmail(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
-        return globalShortCodeService.getShortCode(DatabaseType.USER, user.getId());
+        return shortCodeOf(user);
     }
 
     public User getUserByShortCode(String code) {
-        UUID userUUID = globalShortCodeService.getUUIDfromShortCode(
-                DatabaseType.USER,
-                code
-        );
-
-        return getUserByUUID(userUUID);
+        // Users created before short codes were stored inline are resolved through the global table
+        return userRepository.findByShortCode(code)
+                .orElseGet(() -> getUserByUUID(globalShortCodeService.getUUIDfromShortCode(
+                        DatabaseType.USER,
+                        code
+                )));
     }
 
     public List<UserDTO> getAllUsers() {
         List<User> users = userRepository.findAll();
-        return users.stream()
-                .map(userMapper::toDTO)
-                .collect(Collectors.toList());
+        return userMapper.toDTOList(users);
     }
 
     public UserDTO updateUser(String shortCode, @Valid UpdateUserRequest request) {
@@ -127,6 +125,12 @@ public class UserService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User does not exist"));
 
-        return globalShortCodeService.getShortCode(DatabaseType.USER, user.getId());
+        return shortCodeOf(user);
+    }
+
+    private String shortCodeOf(User user) {
+        return user.getShortCode() != null
+                ? user.getShortCode()
+                : globalShortCodeService.getShortCode(DatabaseType.USER, user.getId());
     }
 }
@@ -0,0 +1,187 @@
+package app.Config;
+
+import app.Database.User;
+import app.Main;
+import app.Repository.UserRepository;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application nodes in relay mode behind an embedded ActiveMQ Artemis
+ * broker with a STOMP acceptor. A client connected to one node must receive
+ * topic broadcasts and user-queue messages sent from the other node.
+ */
+@DisplayName("STOMP broker relay across two nodes")
+class StompBrokerRelayTest {
+
+    private static EmbeddedActiveMQ broker;
+    private static ConfigurableApplicationContext node1;
+    private static ConfigurableApplicationContext node2;
+    private static WebSocketStompClient stompClient;
+
+    @BeforeAll
+    static void startBrokerAndNodes() throws Exception {
+        int stompPort = freePort();
+        // No anycastPrefix: a message relayed from another node keeps the
+        // destination-type=MULTICAST header Artemis put on the broadcast, so
+        // per-session /queue/ destinations have to be multicast addresses too
+        Configuration config = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://localhost:" + stompPort
+                        + "?protocols=STOMP;multicastPrefix=/topic/");
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(config);
+        broker.start();
+
+        node1 = startNode(stompPort);
+        node2 = startNode(stompPort);
+
+        stompClient = new WebSocketStompClient(new SockJsClient(
+                List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        // Needed to track subscription receipts
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        stompClient.setTaskScheduler(scheduler);
+    }
+
+    @AfterAll
+    static void stopAll() throws Exception {
+        if (stompClient != null) stompClient.stop();
+        if (node1 != null) node1.close();
+        if (node2 != null) node2.close();
+        if (broker != null) broker.stop();
+    }
+
+    @Test
+    @DisplayName("Should deliver an event topic broadcast from another node")
+    void topicBroadcast_reachesSubscriberOnOtherNode() throws Exception {
+        StompSession session = connect(node1, "RELAYUSER1");
+        BlockingQueue<String> received = subscribe(session, "/topic/event/RELAYEVENT/messages");
+
+        node2.getBean(SimpMessagingTemplate.class)
+                .convertAndSend("/topic/event/RELAYEVENT/messages", "hello from node 2");
+
+        String payload = received.poll(10, TimeUnit.SECONDS);
+        assertNotNull(payload, "No broadcast received through the relay");
+        assertTrue(payload.contains("hello from node 2"));
+        session.disconnect();
+    }
+
+    @Test
+    @DisplayName("Should deliver a user queue message sent from another node")
+    void userQueue_reachesSessionOnOtherNode() throws Exception {
+        // A user of its own: the shared registry may still list another test's closed session
+        StompSession session = connect(node1, "RELAYUSER2");
+        BlockingQueue<String> received = subscribe(session, "/user/queue/errors");
+
+        node2.getBean(SimpMessagingTemplate.class)
+                .convertAndSendToUser("RELAYUSER2", "/queue/errors", "error from node 2");
+
+        String payload = received.poll(10, TimeUnit.SECONDS);
+        assertNotNull(payload, "No user queue message received through the relay");
+        assertTrue(payload.contains("error from node 2"));
+        session.disconnect();
+    }
+
+    // ===================== helpers =====================
+
+    private static ConfigurableApplicationContext startNode(int stompPort) {
+        return new SpringApplicationBuilder(Main.class).run(
+                "--server.port=0",
+                "--spring.jmx.enabled=false",
+                "--logging.level.org.apache.activemq.audit=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:relay;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database=h2",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--app.cors.allowed-origins=http://localhost",
+                "--app.email.from=relay@test.com",
+                "--spring.mail.host=localhost",
+                "--app.short-code.backfill.enabled=false",
+                "--app.websocket.broker.mode=relay",
+                "--app.websocket.broker.relay.host=localhost",
+                "--app.websocket.broker.relay.port=" + stompPort);
+    }
+
+    // Both nodes share one in-memory database, so the user is visible to each
+    private StompSession connect(ConfigurableApplicationContext node, String userCode) throws Exception {
+        String email = userCode.toLowerCase() + "@test.com";
+        User user = new User();
+        user.setEmail(email);
+        user.setName("Relay User");
+        user.setPassword("pass");
+        user.setActive(true);
+        user.setShortCode(userCode);
+        node.getBean(UserRepository.class).save(user);
+
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + node.getBean(JwtService.class).generateToken(email));
+        return stompClient.connectAsync("http://localhost:" + port + "/ws", new WebSocketHttpHeaders(),
+                        connectHeaders, new StompSessionHandlerAdapter() {})
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private BlockingQueue<String> subscribe(StompSession session, String destination) throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination(destination);
+        headers.setReceipt("subscribed");
+        StompSession.Receiptable receipt = session.subscribe(headers, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add(new String((byte[]) payload, StandardCharsets.UTF_8));
+            }
+        });
+        // Only publish once the broker has the subscription
+        BlockingQueue<Boolean> ready = new LinkedBlockingQueue<>();
+        receipt.addReceiptTask(() -> ready.add(true));
+        assertNotNull(ready.poll(10, TimeUnit.SECONDS), "Subscription to " + destination + " was not confirmed");
+        return received;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
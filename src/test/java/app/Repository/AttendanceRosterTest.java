@@ -0,0 +1,267 @@
+package app.Repository;
+
+import app.Database.*;
+import app.DTO.Event.RosterProgressDTO;
+import app.Service.AttendanceRosterService;
+import app.Service.AttendanceStatsService;
+import app.Service.EntityCountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs AttendanceRosterService's INSERT ... SELECT against the embedded
+ * database. A chunk size of 2 makes the five-member rosters below span
+ * several chunks. The chunked path is called on the unproxied service, so it
+ * runs synchronously inside the test transaction instead of through @Async.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+// Not @DataJpaTest(properties): the @Nested classes would get a context without it
+@TestPropertySource(properties = "app.attendance.roster.chunk-size=2")
+@Import({AttendanceRosterService.class, EntityCountService.class, AttendanceStatsService.class, SimpleMeterRegistry.class})
+@DisplayName("Attendance roster SQL Tests")
+class AttendanceRosterTest {
+
+    @Autowired private AttendanceRosterService rosterService;
+    @Autowired private EventAttendanceRepository attendanceRepository;
+    @Autowired private EventRepository eventRepository;
+    @Autowired private GroupRepository groupRepository;
+    @Autowired private GroupMembershipRepository groupMembershipRepository;
+    @Autowired private CommunityRepository communityRepository;
+    @Autowired private CommunityMembershipRepository communityMembershipRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TestEntityManager entityManager;
+
+    private User creator;
+    private Community community;
+    private Group group;
+    private Set<UUID> groupMembers;
+    private Set<UUID> communityMembers;
+
+    @BeforeEach
+    void setUp() {
+        creator   = saveUser("creator@test.com", "Creator");
+        community = saveCommunity("Community", creator);
+        group     = saveGroup("Group", community, creator);
+
+        // Five accepted members in each scope, plus one pending that must be skipped
+        groupMembers = new HashSet<>();
+        communityMembers = new HashSet<>();
+        for (int i = 1; i <= 5; i++) {
+            User member = saveUser("member" + i + "@test.com", "Member " + i);
+            saveGroupMembership(member, MembershipStatus.ACCEPTED);
+            groupMembers.add(member.getId());
+
+            User notice = saveUser("reader" + i + "@test.com", "Reader " + i);
+            saveCommunityMembership(notice, MembershipStatus.ACCEPTED);
+            communityMembers.add(notice.getId());
+        }
+        saveGroupMembership(saveUser("invited@test.com", "Invited"), MembershipStatus.PENDING_INVITATION);
+        saveCommunityMembership(saveUser("applicant@test.com", "Applicant"), MembershipStatus.PENDING_APPROVAL);
+
+        entityManager.flush();
+    }
+
+    // ===================== group roster =====================
+
+    @Nested
+    @DisplayName("Group event roster")
+    class GroupRoster {
+
+        @Test
+        @DisplayName("Should add one PENDING row per accepted group member")
+        void initialize_groupEvent_addsAcceptedMembers() {
+            Event event = saveEvent("Group Event", group);
+
+            int created = rosterService.initialize(event);
+
+            assertEquals(5, created);
+            List<EventAttendance> rows = rows(event);
+            assertEquals(groupMembers, userIds(rows));
+            assertTrue(rows.stream().allMatch(a -> a.getStatus() == AttendanceStatus.PENDING));
+            assertTrue(rows.stream().allMatch(a -> group.getId().equals(a.getGroup().getId())));
+            assertEquals(5, attendanceCount(event));
+        }
+
+        @Test
+        @DisplayName("Should add no duplicates when run again")
+        void initialize_groupEvent_rerunAddsNothing() {
+            Event event = saveEvent("Group Event", group);
+            rosterService.initialize(event);
+
+            int created = rosterService.initialize(event);
+
+            assertEquals(0, created);
+            assertEquals(5, rows(event).size());
+            assertEquals(5, attendanceCount(event));
+        }
+    }
+
+    // ===================== notice roster =====================
+
+    @Nested
+    @DisplayName("Notice roster")
+    class NoticeRoster {
+
+        @Test
+        @DisplayName("Should add one row without a group per accepted community member")
+        void initialize_notice_addsAcceptedCommunityMembers() {
+            Event notice = saveEvent("Notice", null);
+
+            int created = rosterService.initialize(notice);
+
+            assertEquals(5, created);
+            List<EventAttendance> rows = rows(notice);
+            assertEquals(communityMembers, userIds(rows));
+            assertTrue(rows.stream().allMatch(a -> a.getGroup() == null));
+            assertEquals(5, attendanceCount(notice));
+        }
+
+        @Test
+        @DisplayName("Should add no duplicates when run again despite the null group_id")
+        void initialize_notice_rerunAddsNothing() {
+            Event notice = saveEvent("Notice", null);
+            rosterService.initialize(notice);
+
+            int created = rosterService.initialize(notice);
+
+            assertEquals(0, created);
+            assertEquals(5, rows(notice).size());
+            assertEquals(5, attendanceCount(notice));
+        }
+    }
+
+    // ===================== chunked roster =====================
+
+    @Nested
+    @DisplayName("Chunked roster")
+    class ChunkedRoster {
+
+        @Test
+        @DisplayName("Should fill a group roster across chunks and report progress")
+        void initializeInChunks_groupEvent_fillsAllChunks() {
+            Event event = saveEvent("Group Event", group);
+            rosterService.markQueued(event);
+
+            chunked().initializeInChunks(event.getId(), group.getId(), community.getId());
+
+            assertEquals(groupMembers, userIds(rows(event)));
+            assertEquals(5, attendanceCount(event));
+            RosterProgressDTO progress = rosterService.getProgress(event.getId());
+            assertEquals(RosterProgressDTO.State.DONE, progress.getState());
+            assertEquals(5, progress.getProcessed());
+            assertEquals(5, progress.getCreated());
+        }
+
+        @Test
+        @DisplayName("Should skip members that already have a row")
+        void initializeInChunks_notice_skipsExistingRows() {
+            Event notice = saveEvent("Notice", null);
+            rosterService.initialize(notice);
+            rosterService.markQueued(notice);
+
+            chunked().initializeInChunks(notice.getId(), null, community.getId());
+
+            assertEquals(communityMembers, userIds(rows(notice)));
+            assertEquals(5, attendanceCount(notice));
+            assertEquals(0, rosterService.getProgress(notice.getId()).getCreated());
+        }
+    }
+
+    // ===================== helpers =====================
+
+    private AttendanceRosterService chunked() {
+        return AopTestUtils.getTargetObject(rosterService);
+    }
+
+    private List<EventAttendance> rows(Event event) {
+        entityManager.clear();
+        return attendanceRepository.findByEventId(event.getId());
+    }
+
+    private Set<UUID> userIds(List<EventAttendance> rows) {
+        Set<UUID> unique = rows.stream().map(a -> a.getUser().getId()).collect(Collectors.toSet());
+        assertEquals(rows.size(), unique.size(), "Duplicate roster rows");
+        return unique;
+    }
+
+    private int attendanceCount(Event event) {
+        entityManager.clear();
+        return eventRepository.findById(event.getId()).orElseThrow().getAttendanceCount();
+    }
+
+    private User saveUser(String email, String name) {
+        User u = new User();
+        u.setEmail(email);
+        u.setName(name);
+        u.setPassword("pass");
+        u.setActive(true);
+        return userRepository.save(u);
+    }
+
+    private Community saveCommunity(String name, User creator) {
+        Community c = new Community();
+        c.setName(name);
+        c.setCreatedBy(creator);
+        return communityRepository.save(c);
+    }
+
+    private Group saveGroup(String name, Community community, User creator) {
+        Group g = new Group();
+        g.setName(name);
+        g.setCommunity(community);
+        g.setCreatedBy(creator);
+        return groupRepository.save(g);
+    }
+
+    private void saveGroupMembership(User user, MembershipStatus status) {
+        GroupMembership m = new GroupMembership();
+        m.setUser(user);
+        m.setGroup(group);
+        m.setRole(MemberRole.MEMBER);
+        m.setStatus(status);
+        groupMembershipRepository.save(m);
+    }
+
+    private void saveCommunityMembership(User user, MembershipStatus status) {
+        CommunityMembership m = new CommunityMembership();
+        m.setUser(user);
+        m.setCommunity(community);
+        m.setRole(MemberRole.MEMBER);
+        m.setStatus(status);
+        communityMembershipRepository.save(m);
+    }
+
+    // The roster SQL reads committed-or-flushed rows only, so the event is flushed here
+    private Event saveEvent(String title, Group group) {
+        Event e = new Event();
+        e.setTitle(title);
+        e.setCommunity(community);
+        e.setGroup(group);
+        e.setCreatedBy(creator);
+        e.setEventDate(LocalDate.now().plusDays(7));
+        e.setEventTime(LocalTime.of(10, 0));
+        e.setAttendanceEnabled(true);
+        return eventRepository.saveAndFlush(e);
+    }
+}
@@ -13,7 +13,10 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -296,6 +299,33 @@ class CommunityMembershipRepositoryTest {
         }
     }
 
+    // ===================== countMembersByCommunityIds =====================
+
+    @Nested
+    @DisplayName("countMembersByCommunityIds()")
+    class CountMembersByCommunityIds {
+
+        @Test
+        @DisplayName("Should return one (communityId, count) row per community")
+        void count_returnsCountPerCommunity() {
+            List<Object[]> rows = membershipRepository.countMembersByCommunityIds(
+                    List.of(community1.getId(), community2.getId()));
+
+            Map<UUID, Long> counts = rows.stream()
+                    .collect(Collectors.toMap(r -> (UUID) r[0], r -> (Long) r[1]));
+            assertEquals(2, counts.size());
+            assertEquals(3L, counts.get(community1.getId()));
+            assertEquals(1L, counts.get(community2.getId()));
+        }
+
+        @Test
+        @DisplayName("Should leave out communities without members")
+        void count_forUnknownCommunity_returnsNoRow() {
+            List<Object[]> rows = membershipRepository.countMembersByCommunityIds(List.of(UUID.randomUUID()));
+            assertTrue(rows.isEmpty());
+        }
+    }
+
     // ===================== helpers =====================
 
     private User saveUser(String email, String name) {
@@ -8,6 +8,8 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
@@ -379,6 +381,66 @@ class EventAttendanceRepositoryTest {
         }
     }
 
+    // ===================== findEntriesByEventId =====================
+
+    @Nested
+    @DisplayName("findEntriesByEventId() / findEntriesByEventIdAndGroupId()")
+    class FindEntries {
+
+        @Test
+        @DisplayName("Should page slim rows of the whole event, with and without a status filter")
+        void find_entries_pagesAndFiltersByStatus() {
+            Page<Object[]> all = attendanceRepository.findEntriesByEventId(event.getId(), null, PageRequest.of(0, 2));
+            assertEquals(3, all.getTotalElements());
+            assertEquals(2, all.getNumberOfElements());
+
+            Page<Object[]> present = attendanceRepository.findEntriesByEventId(
+                    event.getId(), AttendanceStatus.PRESENT, PageRequest.of(0, 10));
+            assertEquals(1, present.getTotalElements());
+            Object[] row = present.getContent().get(0);
+            assertEquals(attendance1.getId(), row[0]);
+            assertEquals(user1.getId(), row[1]);
+            assertEquals(group1.getId(), row[5]);
+            assertEquals(creator.getId(), row[8]);
+        }
+
+        @Test
+        @DisplayName("Should only return rows of the requested group")
+        void find_entries_byGroup_returnsOnlyThatGroup() {
+            Page<Object[]> result = attendanceRepository.findEntriesByEventIdAndGroupId(
+                    event.getId(), group1.getId(), null, PageRequest.of(0, 10));
+            assertEquals(2, result.getTotalElements());
+            assertTrue(result.getContent().stream().allMatch(r -> group1.getId().equals(r[5])));
+
+            Page<Object[]> pending = attendanceRepository.findEntriesByEventIdAndGroupId(
+                    event.getId(), group2.getId(), AttendanceStatus.PENDING, PageRequest.of(0, 10));
+            assertEquals(1, pending.getTotalElements());
+            assertNull(pending.getContent().get(0)[8]);
+        }
+    }
+
+    // ===================== findMarksByEventIdAndUserIds =====================
+
+    @Nested
+    @DisplayName("findMarksByEventIdAndUserIds()")
+    class FindMarksByEventIdAndUserIds {
+
+        @Test
+        @DisplayName("Should return one (id, user, group, status) row per existing record, including notices")
+        void find_marks_returnsRowsForRequestedUsers() {
+            EventAttendance notice = saveAttendance(event, user2, null, AttendanceStatus.PENDING, null);
+
+            List<Object[]> rows = attendanceRepository
+                    .findMarksByEventIdAndUserIds(event.getId(), List.of(user2.getId()));
+
+            assertEquals(2, rows.size());
+            Object[] noticeRow = rows.stream().filter(r -> r[2] == null).findFirst().orElseThrow();
+            assertEquals(notice.getId(), noticeRow[0]);
+            assertEquals(user2.getId(), noticeRow[1]);
+            assertEquals(AttendanceStatus.PENDING, noticeRow[3]);
+        }
+    }
+
     // ===================== helpers =====================
 
     private User saveUser(String email, String name) {
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
@@ -31,6 +32,7 @@ class EventRepositoryTest {
     @Autowired private GroupRepository groupRepository;
     @Autowired private CommunityRepository communityRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private TestEntityManager entityManager;
 
     private User creator;
     private Community community;
@@ -357,6 +359,40 @@ class EventRepositoryTest {
         }
     }
 
+    // ===================== denormalized counters =====================
+
+    @Nested
+    @DisplayName("adjustEventCount() / recomputeCounters()")
+    class Counters {
+
+        @Test
+        @DisplayName("Should increment the stored counter in place")
+        void adjustEventCount_incrementsCounter() {
+            entityManager.flush();
+
+            groupRepository.adjustEventCount(group.getId(), 2);
+            groupRepository.adjustEventCount(group.getId(), -1);
+            entityManager.clear();
+
+            assertEquals(1, groupRepository.findById(group.getId()).get().getEventCount());
+        }
+
+        @Test
+        @DisplayName("Should reset drifted counters to the real child counts")
+        void recomputeCounters_fixesDrift() {
+            entityManager.flush();
+
+            groupRepository.adjustEventCount(group.getId(), 7);
+            eventRepository.adjustMessageCount(futureGroupEvent.getId(), 3);
+            groupRepository.recomputeCounters(List.of(group.getId()));
+            eventRepository.recomputeCounters(List.of(futureGroupEvent.getId()));
+            entityManager.clear();
+
+            assertEquals(1, groupRepository.findById(group.getId()).get().getEventCount());
+            assertEquals(0, eventRepository.findById(futureGroupEvent.getId()).get().getMessageCount());
+        }
+    }
+
     // ===================== helpers =====================
 
     private User saveUser(String email, String name) {
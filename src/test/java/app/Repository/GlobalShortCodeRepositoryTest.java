@@ -0,0 +1,108 @@
+package app.Repository;
+
+import app.Database.DatabaseType;
+import app.Database.GlobalShortCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("GlobalShortCodeRepository Tests")
+class GlobalShortCodeRepositoryTest {
+
+    @Autowired
+    private GlobalShortCodeRepository shortCodeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UUID communityId;
+
+    @BeforeEach
+    void setUp() {
+        shortCodeRepository.deleteAll();
+
+        communityId = UUID.randomUUID();
+
+        // One code already bound to an entity, two waiting in the pool
+        shortCodeRepository.save(new GlobalShortCode("BOUND00001", DatabaseType.COMMUNITY, communityId));
+        shortCodeRepository.save(new GlobalShortCode("POOLED0001", DatabaseType.COMMUNITY, null));
+        shortCodeRepository.save(new GlobalShortCode("POOLED0002", DatabaseType.GROUP, null));
+        entityManager.flush();
+    }
+
+    // ===================== findByTypeAndReferenceIdIsNull =====================
+
+    @Nested
+    @DisplayName("findByTypeAndReferenceIdIsNull()")
+    class FindUnclaimed {
+
+        @Test
+        @DisplayName("Should return only unbound codes of the requested type")
+        void findByTypeAndReferenceIdIsNull_returnsPoolCodesOfType() {
+            List<GlobalShortCode> result = shortCodeRepository
+                    .findByTypeAndReferenceIdIsNull(DatabaseType.COMMUNITY, PageRequest.of(0, 10));
+
+            assertEquals(1, result.size());
+            assertEquals("POOLED0001", result.get(0).getCode());
+            assertFalse(result.get(0).isReserved());
+        }
+    }
+
+    // ===================== findByReferenceIdIsNotNull =====================
+
+    @Nested
+    @DisplayName("findByReferenceIdIsNotNull()")
+    class FindBound {
+
+        @Test
+        @DisplayName("Should skip unbound pool codes when warming the cache")
+        void findByReferenceIdIsNotNull_returnsOnlyBoundCodes() {
+            List<GlobalShortCode> result = shortCodeRepository.findByReferenceIdIsNotNull(PageRequest.of(0, 10));
+
+            assertEquals(1, result.size());
+            assertEquals("BOUND00001", result.get(0).getCode());
+        }
+    }
+
+    // ===================== claim =====================
+
+    @Nested
+    @DisplayName("claim()")
+    class Claim {
+
+        @Test
+        @DisplayName("Should bind an unclaimed code to the entity")
+        void claim_whenUnclaimed_bindsReference() {
+            UUID groupId = UUID.randomUUID();
+
+            int updated = shortCodeRepository.claim("POOLED0002", groupId);
+            entityManager.clear();
+
+            assertEquals(1, updated);
+            assertEquals(groupId, shortCodeRepository.findByCode("POOLED0002").get().getReferenceId());
+        }
+
+        @Test
+        @DisplayName("Should not rebind a code that is already claimed")
+        void claim_whenAlreadyClaimed_updatesNothing() {
+            int updated = shortCodeRepository.claim("BOUND00001", UUID.randomUUID());
+            entityManager.clear();
+
+            assertEquals(0, updated);
+            assertEquals(communityId, shortCodeRepository.findByCode("BOUND00001").get().getReferenceId());
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package app.Repository;
+
+import app.Database.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("MessageRepository Tests")
+class MessageRepositoryTest {
+
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private MediaRepository mediaRepository;
+    @Autowired private EventRepository eventRepository;
+    @Autowired private CommunityRepository communityRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TestEntityManager entityManager;
+
+    private User sender;
+    private Community community;
+    private Event event;
+    private Event otherEvent;
+
+    // Oldest first, one minute apart
+    private final List<Message> eventMessages = new ArrayList<>();
+    private final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        messageRepository.deleteAll();
+        eventRepository.deleteAll();
+        communityRepository.deleteAll();
+        userRepository.deleteAll();
+
+        sender     = saveUser("sender@test.com", "Sender");
+        community  = saveCommunity("Community", sender);
+        event      = saveEvent("Event", community, sender);
+        otherEvent = saveEvent("Other Event", community, sender);
+
+        eventMessages.clear();
+        for (int i = 1; i <= 5; i++) {
+            eventMessages.add(saveMessage(event, "Message " + i, START.plusMinutes(i)));
+        }
+        saveMessage(otherEvent, "Elsewhere", START.plusMinutes(10));
+        entityManager.clear();
+    }
+
+    // ===================== findLatestByEventId =====================
+
+    @Nested
+    @DisplayName("findLatestByEventId()")
+    class FindLatestByEventId {
+
+        @Test
+        @DisplayName("Should return the newest messages first and report more history")
+        void findLatest_returnsNewestWindow() {
+            Slice<Message> result = messageRepository.findLatestByEventId(event.getId(), PageRequest.of(0, 2));
+
+            assertEquals(2, result.getNumberOfElements());
+            assertEquals(eventMessages.get(4).getId(), result.getContent().get(0).getId());
+            assertEquals(eventMessages.get(3).getId(), result.getContent().get(1).getId());
+            assertTrue(result.hasNext());
+        }
+    }
+
+    // ===================== findByEventIdBefore =====================
+
+    @Nested
+    @DisplayName("findByEventIdBefore()")
+    class FindByEventIdBefore {
+
+        @Test
+        @DisplayName("Should walk the whole history without gaps or duplicates")
+        void findBefore_walksEntireHistory() {
+            List<Message> seen = new ArrayList<>();
+            Slice<Message> window = messageRepository.findLatestByEventId(event.getId(), PageRequest.of(0, 2));
+            seen.addAll(window.getContent());
+
+            while (window.hasNext()) {
+                Message last = window.getContent().get(window.getNumberOfElements() - 1);
+                window = messageRepository.findByEventIdBefore(event.getId(), last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+                seen.addAll(window.getContent());
+            }
+
+            assertEquals(5, seen.size());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(eventMessages.get(4 - i).getId(), seen.get(i).getId());
+            }
+        }
+    }
+
+    // ===================== findByEventIdAfter =====================
+
+    @Nested
+    @DisplayName("findByEventIdAfter()")
+    class FindByEventIdAfter {
+
+        @Test
+        @DisplayName("Should return only newer messages of the same event, oldest first")
+        void findAfter_returnsNewerMessages() {
+            Message cursor = eventMessages.get(2);
+
+            Slice<Message> result = messageRepository.findByEventIdAfter(event.getId(), cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, 10));
+
+            assertEquals(2, result.getNumberOfElements());
+            assertEquals(eventMessages.get(3).getId(), result.getContent().get(0).getId());
+            assertEquals(eventMessages.get(4).getId(), result.getContent().get(1).getId());
+            assertFalse(result.hasNext());
+        }
+    }
+
+    // ===================== countUnreadByEventId =====================
+
+    @Nested
+    @DisplayName("countUnreadByEventId()")
+    class CountUnread {
+
+        @Test
+        @DisplayName("Should count only other users' messages after the read marker")
+        void countUnread_countsMessagesAfterMarker() {
+            User reader = saveUser("reader@test.com", "Reader");
+            Message lastRead = eventMessages.get(1);
+
+            assertEquals(3, messageRepository.countUnreadByEventId(
+                    event.getId(), reader.getId(), lastRead.getCreatedAt(), lastRead.getId()));
+            assertEquals(0, messageRepository.countUnreadByEventId(
+                    event.getId(), sender.getId(), lastRead.getCreatedAt(), lastRead.getId()));
+        }
+
+        @Test
+        @DisplayName("Should count everything from others when there is no marker yet")
+        void countWithoutMarker_excludesOwnMessages() {
+            User reader = saveUser("reader@test.com", "Reader");
+
+            assertEquals(5, messageRepository.countByEventIdAndSenderIdNot(event.getId(), reader.getId()));
+            assertEquals(0, messageRepository.countByEventIdAndSenderIdNot(event.getId(), sender.getId()));
+        }
+    }
+
+    // ===================== bulk deletes =====================
+
+    @Nested
+    @DisplayName("Bulk deletes and retention")
+    class BulkDeletes {
+
+        @Test
+        @DisplayName("Should pick the oldest messages before the cutoff, bounded by the page size")
+        void findIdsCreatedBefore_returnsOldestChunk() {
+            List<UUID> ids = messageRepository.findIdsByEventIdCreatedBefore(
+                    event.getId(), START.plusMinutes(4), PageRequest.of(0, 2));
+
+            assertEquals(List.of(eventMessages.get(0).getId(), eventMessages.get(1).getId()), ids);
+        }
+
+        @Test
+        @DisplayName("Should delete messages and their media by id without touching other rows")
+        void deleteByIds_removesMessagesAndMedia() {
+            Message withMedia = eventMessages.get(0);
+            Media media = new Media();
+            media.setMediaType(MediaType.IMAGE);
+            media.setUrl("https://cdn.test.com/old.jpg");
+            media.setMessage(withMedia);
+            entityManager.persistAndFlush(media);
+            List<UUID> ids = List.of(withMedia.getId(), eventMessages.get(1).getId());
+
+            assertEquals(1, mediaRepository.deleteByMessageIds(ids));
+            assertEquals(2, messageRepository.deleteByIds(ids));
+            entityManager.clear();
+
+            assertEquals(3, messageRepository.countByEventId(event.getId()));
+            assertEquals(1, messageRepository.countByEventId(otherEvent.getId()));
+        }
+
+        @Test
+        @DisplayName("Should resolve an event's retention from its own value or its community's")
+        void findMessageRetention_prefersEventOverCommunity() {
+            entityManager.find(Community.class, community.getId()).setMessageRetentionDays(30);
+            entityManager.find(Event.class, otherEvent.getId()).setMessageRetentionDays(7);
+            entityManager.flush();
+
+            Map<UUID, Integer> retention = new HashMap<>();
+            for (Object[] row : eventRepository.findMessageRetention()) {
+                retention.put((UUID) row[0], ((Number) row[1]).intValue());
+            }
+
+            assertEquals(30, retention.get(event.getId()));
+            assertEquals(7, retention.get(otherEvent.getId()));
+            assertEquals(1, communityRepository.findMessageRetention().size());
+        }
+    }
+
+    // ===================== streamByEventId =====================
+
+    @Nested
+    @DisplayName("streamByEventId()")
+    class StreamByEventId {
+
+        @Test
+        @DisplayName("Should stream the event's history oldest first")
+        void stream_returnsHistoryInOrder() {
+            List<Message> result;
+            try (Stream<Message> stream = messageRepository.streamByEventId(event.getId())) {
+                result = stream.toList();
+            }
+
+            assertEquals(5, result.size());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(eventMessages.get(i).getId(), result.get(i).getId());
+            }
+        }
+    }
+
+    // ===================== save =====================
+
+    @Nested
+    @DisplayName("save()")
+    class Save {
+
+        @Test
+        @DisplayName("Should assign id, timestamps and media ids without reading the row back")
+        void save_populatesGeneratedValuesInMemory() {
+            Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+            statistics.clear();
+
+            Message message = new Message();
+            message.setEvent(event);
+            message.setSender(sender);
+            message.setType(MessageType.MEDIA);
+            message.setContent("With attachment");
+            Media media = new Media();
+            media.setMediaType(MediaType.IMAGE);
+            media.setUrl("https://cdn.test.com/img.jpg");
+            media.setMessage(message);
+            message.setMediaList(new ArrayList<>(List.of(media)));
+
+            Message saved = messageRepository.save(message);
+
+            assertNotNull(saved.getId());
+            assertNotNull(saved.getCreatedAt());
+            assertNotNull(saved.getUpdatedAt());
+            assertNotNull(saved.getMediaList().get(0).getId());
+
+            // One INSERT per row and nothing else: no SELECT to refresh the message
+            entityManager.flush();
+            assertEquals(2, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+
+            statistics.setStatisticsEnabled(false);
+        }
+
+        @Test
+        @DisplayName("Should accept a detached sender carrying only its id without loading the user")
+        void save_withDetachedSender_doesNotLoadUser() {
+            entityManager.flush();
+            entityManager.clear();
+            Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+            statistics.clear();
+
+            User detached = new User();
+            detached.setId(sender.getId());
+            detached.setName("Stale name");
+
+            Message message = new Message();
+            message.setEvent(entityManager.getEntityManager().getReference(Event.class, event.getId()));
+            message.setSender(detached);
+            message.setType(MessageType.TEXT);
+            message.setContent("From a STOMP session");
+            Message saved = messageRepository.saveAndFlush(message);
+
+            assertEquals(0, statistics.getEntityLoadCount());
+            statistics.setStatisticsEnabled(false);
+
+            entityManager.clear();
+            Message reloaded = messageRepository.findById(saved.getId()).orElseThrow();
+            assertEquals(sender.getId(), reloaded.getSender().getId());
+            assertEquals(sender.getName(), reloaded.getSender().getName());
+        }
+    }
+
+    // ===================== helpers =====================
+
+    private User saveUser(String email, String name) {
+        User u = new User();
+        u.setEmail(email);
+        u.setName(name);
+        u.setPassword("pass");
+        u.setActive(true);
+        return userRepository.save(u);
+    }
+
+    private Community saveCommunity(String name, User creator) {
+        Community c = new Community();
+        c.setName(name);
+        c.setCreatedBy(creator);
+        return communityRepository.save(c);
+    }
+
+    private Event saveEvent(String title, Community community, User creator) {
+        Event e = new Event();
+        e.setTitle(title);
+        e.setCommunity(community);
+        e.setCreatedBy(creator);
+        e.setEventDate(LocalDate.now().plusDays(7));
+        e.setEventTime(LocalTime.of(10, 0));
+        e.setAttendanceEnabled(false);
+        return eventRepository.save(e);
+    }
+
+    private Message saveMessage(Event event, String content, LocalDateTime createdAt) {
+        Message m = new Message();
+        m.setEvent(event);
+        m.setSender(sender);
+        m.setType(MessageType.TEXT);
+        m.setContent(content);
+        m.setCreatedAt(createdAt);
+        return messageRepository.saveAndFlush(m);
+    }
+}
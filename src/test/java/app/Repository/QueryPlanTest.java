@@ -0,0 +1,186 @@
+package app.Repository;
+
+import app.Database.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query-plan regression test for the hot repository queries. Each case calls
+ * the repository method itself, captures the SQL Hibernate sends through a
+ * StatementInspector, and fails if the embedded database plans any of those
+ * statements as a full table scan instead of using an index declared on the
+ * entities. A query that drifts away from its index fails here.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=app.Repository.QueryPlanTest$CapturingInspector")
+@ActiveProfiles("test")
+@DisplayName("Query plan regression tests")
+class QueryPlanTest {
+
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID OTHER_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final PageRequest PAGE = PageRequest.of(0, 50);
+
+    private static final Map<String, Consumer<QueryPlanTest>> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        // CommunityMembershipRepository
+        HOT_QUERIES.put("CommunityMembership.findByUserIdAndCommunityIdAndStatus",
+                t -> t.communityMembershipRepository.findByUserIdAndCommunityIdAndStatus(ID, OTHER_ID, MembershipStatus.ACCEPTED));
+        HOT_QUERIES.put("CommunityMembership.findByCommunityIdAndStatus",
+                t -> t.communityMembershipRepository.findByCommunityIdAndStatus(ID, MembershipStatus.ACCEPTED));
+        HOT_QUERIES.put("CommunityMembership.findByCommunityIdAndRole",
+                t -> t.communityMembershipRepository.findByCommunityIdAndRole(ID, MemberRole.OWNER));
+        HOT_QUERIES.put("CommunityMembership.findByUserIdAndStatus",
+                t -> t.communityMembershipRepository.findByUserIdAndStatus(ID, MembershipStatus.ACCEPTED));
+        // GroupMembershipRepository
+        HOT_QUERIES.put("GroupMembership.findByUserIdAndGroupIdAndStatus",
+                t -> t.groupMembershipRepository.findByUserIdAndGroupIdAndStatus(ID, OTHER_ID, MembershipStatus.ACCEPTED));
+        HOT_QUERIES.put("GroupMembership.findByGroupIdAndStatus",
+                t -> t.groupMembershipRepository.findByGroupIdAndStatus(ID, MembershipStatus.ACCEPTED));
+        HOT_QUERIES.put("GroupMembership.findByGroupIdAndRole",
+                t -> t.groupMembershipRepository.findByGroupIdAndRole(ID, MemberRole.OWNER));
+        HOT_QUERIES.put("GroupMembership.findByUserIdAndStatus",
+                t -> t.groupMembershipRepository.findByUserIdAndStatus(ID, MembershipStatus.ACCEPTED));
+        // MessageRepository
+        HOT_QUERIES.put("Message.findByEventIdOrderByCreatedAtDesc",
+                t -> t.messageRepository.findByEventIdOrderByCreatedAtDesc(ID, PAGE));
+        HOT_QUERIES.put("Message.findByCommunityIdOrderByCreatedAtDesc",
+                t -> t.messageRepository.findByCommunityIdOrderByCreatedAtDesc(ID, PAGE));
+        HOT_QUERIES.put("Message.findByGroupIdOrderByCreatedAtDesc",
+                t -> t.messageRepository.findByGroupIdOrderByCreatedAtDesc(ID, PAGE));
+        HOT_QUERIES.put("Message.countByEventId",
+                t -> t.messageRepository.countByEventId(ID));
+        HOT_QUERIES.put("Message.findByEventIdBefore",
+                t -> t.messageRepository.findByEventIdBefore(ID, LocalDateTime.of(2024, 1, 1, 0, 0), OTHER_ID, PAGE));
+        // EventAttendanceRepository
+        HOT_QUERIES.put("EventAttendance.findByEventIdAndUserIdAndGroupId",
+                t -> t.attendanceRepository.findByEventIdAndUserIdAndGroupId(ID, OTHER_ID, OTHER_ID));
+        HOT_QUERIES.put("EventAttendance.findByEventIdAndStatus",
+                t -> t.attendanceRepository.findByEventIdAndStatus(ID, AttendanceStatus.PRESENT));
+        HOT_QUERIES.put("EventAttendance.findByEventIdAndGroupIdAndStatus",
+                t -> t.attendanceRepository.findByEventIdAndGroupIdAndStatus(ID, OTHER_ID, AttendanceStatus.PRESENT));
+        HOT_QUERIES.put("EventAttendance.findByUserId",
+                t -> t.attendanceRepository.findByUserId(ID));
+        // EventRepository / GroupRepository
+        HOT_QUERIES.put("Event.findByCommunityIdOrderByDateDesc",
+                t -> t.eventRepository.findByCommunityIdOrderByDateDesc(ID));
+        HOT_QUERIES.put("Event.findByGroupIdOrderByDateDesc",
+                t -> t.eventRepository.findByGroupIdOrderByDateDesc(ID));
+        HOT_QUERIES.put("Group.findByCommunityIdOrderByCreatedAtDesc",
+                t -> t.groupRepository.findByCommunityIdOrderByCreatedAtDesc(ID));
+        // Short code lookups
+        HOT_QUERIES.put("GlobalShortCode.findByTypeAndReferenceId",
+                t -> t.globalShortCodeRepository.findByTypeAndReferenceId(DatabaseType.COMMUNITY, ID));
+        HOT_QUERIES.put("GlobalShortCode.findByCode",
+                t -> t.globalShortCodeRepository.findByCode("ABCDEFGHJK"));
+        HOT_QUERIES.put("Community.findByShortCode",
+                t -> t.communityRepository.findByShortCode("ABCDEFGHJK"));
+        HOT_QUERIES.put("User.findByShortCode",
+                t -> t.userRepository.findByShortCode("ABCDEFGHJK"));
+        // ActivityRepository / MediaRepository
+        HOT_QUERIES.put("Activity.findByTypeAndReferenceId",
+                t -> t.activityRepository.findByTypeAndReferenceId(DatabaseType.COMMUNITY, ID));
+        HOT_QUERIES.put("Media.findByMessageId",
+                t -> t.mediaRepository.findByMessageId(ID));
+    }
+
+    @Autowired private CommunityMembershipRepository communityMembershipRepository;
+    @Autowired private GroupMembershipRepository groupMembershipRepository;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private EventAttendanceRepository attendanceRepository;
+    @Autowired private EventRepository eventRepository;
+    @Autowired private GroupRepository groupRepository;
+    @Autowired private GlobalShortCodeRepository globalShortCodeRepository;
+    @Autowired private CommunityRepository communityRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ActivityRepository activityRepository;
+    @Autowired private MediaRepository mediaRepository;
+    @Autowired private EntityManager entityManager;
+
+    static Stream<String> hotQueries() {
+        return HOT_QUERIES.keySet().stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Hot repository queries should use an index")
+    @MethodSource("hotQueries")
+    void hotQuery_usesIndex(String name) {
+        List<String> selects = CapturingInspector.capture(() -> HOT_QUERIES.get(name).accept(this)).stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .toList();
+        assertFalse(selects.isEmpty(), () -> name + " issued no SELECT");
+
+        for (String sql : selects) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), () -> "Full table scan for " + name + ": " + sql + "\n" + plan);
+        }
+    }
+
+    // Parameters stay unbound: H2 plans the statement without their values
+    private String explain(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    /**
+     * Records the SQL Hibernate prepares on the current thread while capturing is on.
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        static List<String> capture(Runnable action) {
+            List<String> statements = new ArrayList<>();
+            CAPTURED.set(statements);
+            try {
+                action.run();
+            } finally {
+                CAPTURED.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = CAPTURED.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
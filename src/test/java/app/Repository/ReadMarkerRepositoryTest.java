@@ -0,0 +1,150 @@
+package app.Repository;
+
+import app.Database.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("ReadMarkerRepository Tests")
+class ReadMarkerRepositoryTest {
+
+    @Autowired private ReadMarkerRepository readMarkerRepository;
+    @Autowired private EventRepository eventRepository;
+    @Autowired private CommunityRepository communityRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TestEntityManager entityManager;
+
+    private User owner;
+    private User reader;
+    private Community community;
+    private Event event;
+    private Event otherEvent;
+
+    @BeforeEach
+    void setUp() {
+        owner      = saveUser("owner@test.com", "Owner");
+        reader     = saveUser("reader@test.com", "Reader");
+        community  = saveCommunity("Community", owner);
+        event      = saveEvent("Event", community, owner);
+        otherEvent = saveEvent("Other Event", community, owner);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // ===================== event deletion =====================
+
+    @Nested
+    @DisplayName("Deleting an event")
+    class DeleteEvent {
+
+        @Test
+        @DisplayName("Should delete the event's read markers and keep the others")
+        void deleteEvent_removesItsMarkers() {
+            ReadMarker marker = saveMarker(reader, event, null);
+            ReadMarker kept = saveMarker(reader, otherEvent, null);
+
+            eventRepository.delete(entityManager.find(Event.class, event.getId()));
+            entityManager.flush();
+            entityManager.clear();
+
+            assertTrue(readMarkerRepository.findById(marker.getId()).isEmpty());
+            assertTrue(readMarkerRepository.findById(kept.getId()).isPresent());
+        }
+    }
+
+    // ===================== community deletion =====================
+
+    @Nested
+    @DisplayName("Deleting a community")
+    class DeleteCommunity {
+
+        @Test
+        @DisplayName("Should delete markers on the community and on its events")
+        void deleteCommunity_removesCommunityAndEventMarkers() {
+            ReadMarker communityMarker = saveMarker(reader, null, community);
+            ReadMarker eventMarker = saveMarker(reader, event, null);
+            entityManager.clear();
+
+            communityRepository.delete(entityManager.find(Community.class, community.getId()));
+            entityManager.flush();
+            entityManager.clear();
+
+            assertTrue(readMarkerRepository.findById(communityMarker.getId()).isEmpty());
+            assertTrue(readMarkerRepository.findById(eventMarker.getId()).isEmpty());
+        }
+    }
+
+    // ===================== user deletion =====================
+
+    @Nested
+    @DisplayName("Deleting a user")
+    class DeleteUser {
+
+        @Test
+        @DisplayName("Should delete the user's markers and keep other users' markers")
+        void deleteUser_removesTheirMarkers() {
+            ReadMarker marker = saveMarker(reader, event, null);
+            ReadMarker kept = saveMarker(owner, event, null);
+
+            userRepository.deleteById(reader.getId());
+            entityManager.flush();
+            entityManager.clear();
+
+            assertTrue(readMarkerRepository.findById(marker.getId()).isEmpty());
+            assertTrue(readMarkerRepository.findById(kept.getId()).isPresent());
+        }
+    }
+
+    // ===================== helpers =====================
+
+    private User saveUser(String email, String name) {
+        User u = new User();
+        u.setEmail(email);
+        u.setName(name);
+        u.setPassword("pass");
+        u.setActive(true);
+        return userRepository.save(u);
+    }
+
+    private Community saveCommunity(String name, User creator) {
+        Community c = new Community();
+        c.setName(name);
+        c.setCreatedBy(creator);
+        return communityRepository.save(c);
+    }
+
+    private Event saveEvent(String title, Community community, User creator) {
+        Event e = new Event();
+        e.setTitle(title);
+        e.setCommunity(community);
+        e.setCreatedBy(creator);
+        e.setEventDate(LocalDate.now().plusDays(7));
+        e.setEventTime(LocalTime.of(10, 0));
+        e.setAttendanceEnabled(false);
+        return eventRepository.save(e);
+    }
+
+    private ReadMarker saveMarker(User user, Event event, Community community) {
+        ReadMarker m = new ReadMarker();
+        m.setUser(user);
+        m.setEvent(event);
+        m.setCommunity(community);
+        m.setLastReadMessageId(UUID.randomUUID());
+        m.setLastReadAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return readMarkerRepository.saveAndFlush(m);
+    }
+}
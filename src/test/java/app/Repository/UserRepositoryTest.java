@@ -36,6 +36,7 @@ class UserRepositoryTest {
         user1.setPhone("1111111111");
         user1.setPassword("hashedpassword1");
         user1.setActive(true);
+        user1.setShortCode("ALICE00001");
 
         user2 = new User();
         user2.setEmail("bob@example.com");
@@ -72,6 +73,28 @@ class UserRepositoryTest {
         }
     }
 
+    // ===================== findByShortCode =====================
+
+    @Nested
+    @DisplayName("findByShortCode()")
+    class FindByShortCode {
+
+        @Test
+        @DisplayName("Should return user when short code exists")
+        void findByShortCode_whenCodeExists_returnsUser() {
+            Optional<User> result = userRepository.findByShortCode("ALICE00001");
+
+            assertTrue(result.isPresent());
+            assertEquals("alice@example.com", result.get().getEmail());
+        }
+
+        @Test
+        @DisplayName("Should return empty Optional when short code not found")
+        void findByShortCode_whenCodeNotFound_returnsEmpty() {
+            assertFalse(userRepository.findByShortCode("UNKNOWN001").isPresent());
+        }
+    }
+
     // ===================== existsByEmail =====================
 
     @Nested